@@ -0,0 +1,28 @@
+package com.example.libraryapi.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item da busca em lote de livros: a chave solicitada, se o livro foi encontrado e, nesse caso,
+ * a sua representação.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookLookupDTO {
+
+    private Long id;
+
+    private String isbn;
+
+    private boolean found;
+
+    private BookDTO book;
+
+}
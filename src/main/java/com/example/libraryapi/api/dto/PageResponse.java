@@ -0,0 +1,82 @@
+package com.example.libraryapi.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Envelope de paginação das listagens. Em vez de materializar uma lista de DTOs e deixar o
+ * Jackson percorrer o grafo de {@code PageImpl}/{@code Pageable}/{@code Sort}, converte cada
+ * entidade no momento da escrita e grava apenas
+ * {@code {content, number, size, totalElements, totalPages}}.
+ */
+@JsonSerialize(using = PageResponse.Serializer.class)
+public final class PageResponse<T> {
+
+    private final Page<?> page;
+    private final Function<Object, T> mapper;
+
+    @SuppressWarnings("unchecked")
+    private <E> PageResponse(Page<E> page, Function<? super E, T> mapper) {
+        this.page = page;
+        this.mapper = (Function<Object, T>) mapper;
+    }
+
+    public static <E, T> PageResponse<T> of(Page<E> page, Function<? super E, T> mapper) {
+        return new PageResponse<>(page, mapper);
+    }
+
+    /**
+     * Conteúdo da página já convertido. A serialização não passa por aqui (ver {@link Serializer});
+     * o getter existe para que o schema gerado pelo springdoc descreva {@code content} com o tipo
+     * dos itens, como ele sai na resposta.
+     */
+    public List<T> getContent() {
+        return page.getContent().stream().map(mapper).collect(Collectors.toList());
+    }
+
+    public int getNumber() {
+        return page.getNumber();
+    }
+
+    public int getSize() {
+        return page.getSize();
+    }
+
+    public long getTotalElements() {
+        return page.getTotalElements();
+    }
+
+    public int getTotalPages() {
+        return page.getTotalPages();
+    }
+
+    static class Serializer extends JsonSerializer<PageResponse<?>> {
+
+        @Override
+        public void serialize(PageResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+
+            gen.writeFieldName("content");
+            gen.writeStartArray(value.page, value.page.getNumberOfElements());
+            for (var entity : value.page) {
+                provider.defaultSerializeValue(value.mapper.apply(entity), gen);
+            }
+            gen.writeEndArray();
+
+            gen.writeNumberField("number", value.getNumber());
+            gen.writeNumberField("size", value.getSize());
+            gen.writeNumberField("totalElements", value.getTotalElements());
+            gen.writeNumberField("totalPages", value.getTotalPages());
+
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lote da sincronização incremental: o estado atual dos livros e empréstimos alterados depois de
+ * {@code since} e os ids removidos. O cliente guarda {@code next} e repete a chamada enquanto
+ * {@code more} for verdadeiro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDTO {
+
+    private long since;
+
+    private long next;
+
+    private boolean more;
+
+    private List<BookDTO> books;
+
+    private List<SyncLoanDTO> loans;
+
+    private List<Long> deletedBooks;
+
+    private List<Long> deletedLoans;
+
+}
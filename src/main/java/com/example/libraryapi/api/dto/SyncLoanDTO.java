@@ -0,0 +1,34 @@
+package com.example.libraryapi.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Empréstimo na sincronização incremental: referencia o livro pelo id em vez de repeti-lo, já que
+ * os livros vêm no mesmo lote ou já estão no cliente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncLoanDTO {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String customer;
+
+    private String email;
+
+    private LocalDate loanDate;
+
+    private Boolean returned;
+
+}
@@ -0,0 +1,27 @@
+package com.example.libraryapi.api.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas do limite de concorrência, iguais nas pilhas servlet e reativa.
+ */
+final class ConcurrencyLimitMeters {
+
+    final Counter accepted;
+    final Counter rejected;
+
+    ConcurrencyLimitMeters(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.accepted = Counter.builder("http.concurrency.requests")
+                .tag("outcome", "accepted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.concurrency.requests")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Regras de rate limit por endpoint, compartilhadas pelo filtro servlet e pelo reativo: escolhe a
+ * regra pelo método e caminho, identifica o cliente e cobra um token do bucket correspondente.
+ */
+public class EndpointRateLimiter {
+
+    public static final String TOO_MANY_REQUESTS_MESSAGE = "Limite de requisições excedido. Tente novamente mais tarde.";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<LimitedEndpoint> endpoints;
+    private final String keyHeader;
+    private final Set<String> apiKeys;
+
+    public EndpointRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.keyHeader = properties.getKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        this.endpoints = properties.getRules().stream()
+                .map(rule -> new LimitedEndpoint(rule, properties, meterRegistry))
+                .collect(Collectors.toList());
+    }
+
+    public String getKeyHeader() {
+        return keyHeader;
+    }
+
+    /**
+     * Retorna 0 quando a requisição pode seguir (inclusive fora das regras) ou o tempo, em
+     * nanossegundos, até o bucket do cliente ter um token.
+     */
+    public long tryAcquire(String method, String path, String apiKey, String remoteAddress) {
+        var endpoint = findEndpoint(method, path);
+        if (endpoint == null) {
+            return 0;
+        }
+
+        var waitNanos = endpoint.limiter.tryAcquire(clientKey(apiKey, remoteAddress));
+        if (waitNanos == 0) {
+            endpoint.allowed.increment();
+        } else {
+            endpoint.rejected.increment();
+        }
+
+        return waitNanos;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private LimitedEndpoint findEndpoint(String method, String path) {
+        for (var endpoint : endpoints) {
+            if (endpoint.method.equalsIgnoreCase(method) && pathMatcher.match(endpoint.path, path)) {
+                return endpoint;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Chaves desconhecidas caem no bucket do endereço de origem: um cliente que trocasse de chave a
+     * cada requisição nunca seria limitado e ainda expulsaria os buckets dos outros clientes.
+     */
+    private String clientKey(String apiKey, String remoteAddress) {
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + remoteAddress;
+    }
+
+    private static final class LimitedEndpoint {
+
+        private final String method;
+        private final String path;
+        private final TokenBucketRateLimiter limiter;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private LimitedEndpoint(RateLimitProperties.Rule rule, RateLimitProperties properties, MeterRegistry meterRegistry) {
+            this.method = rule.getMethod();
+            this.path = rule.getPath();
+            this.limiter = new TokenBucketRateLimiter(
+                    rule.getCapacity(), rule.getRefillPerSecond(), properties.getStripes(), properties.getMaxClientsPerStripe());
+
+            var endpointTag = method + " " + path;
+            this.allowed = Counter.builder("http.ratelimit.requests")
+                    .tag("endpoint", endpointTag)
+                    .tag("outcome", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("http.ratelimit.requests")
+                    .tag("endpoint", endpointTag)
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("http.ratelimit.clients", limiter, TokenBucketRateLimiter::trackedClients)
+                    .tag("endpoint", endpointTag)
+                    .register(meterRegistry);
+        }
+    }
+}
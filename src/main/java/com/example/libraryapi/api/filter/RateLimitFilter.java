@@ -0,0 +1,51 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.api.exception.ApiErrors;
+import com.example.libraryapi.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final EndpointRateLimiter limiter;
+    private final byte[] rejectionBody;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+            throws IOException {
+        this.limiter = new EndpointRateLimiter(properties, meterRegistry);
+        this.rejectionBody = objectMapper.writeValueAsBytes(new ApiErrors(
+                new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, EndpointRateLimiter.TOO_MANY_REQUESTS_MESSAGE)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        var waitNanos = limiter.tryAcquire(request.getMethod(), path,
+                request.getHeader(limiter.getKeyHeader()), request.getRemoteAddr());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(EndpointRateLimiter.retryAfterSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+}
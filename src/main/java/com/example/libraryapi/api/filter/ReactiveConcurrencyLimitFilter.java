@@ -0,0 +1,64 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.api.exception.ApiErrors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+
+/**
+ * Versão WebFlux do {@link ConcurrencyLimitFilter}, sobre o mesmo {@link AdaptiveConcurrencyLimiter}.
+ * A vaga é devolvida quando a resposta termina, com erro ou cancelada pelo cliente.
+ */
+public class ReactiveConcurrencyLimitFilter implements WebFilter {
+
+    private static final String API_PREFIX = "/api/";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final byte[] rejectionBody;
+    private final ConcurrencyLimitMeters meters;
+
+    public ReactiveConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+                                          MeterRegistry meterRegistry) throws IOException {
+        this.limiter = limiter;
+        this.rejectionBody = objectMapper.writeValueAsBytes(new ApiErrors(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ConcurrencyLimitFilter.OVERLOADED_MESSAGE)));
+        this.meters = new ConcurrencyLimitMeters(limiter, meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().pathWithinApplication().value().startsWith(API_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        if (!limiter.tryAcquire()) {
+            meters.rejected.increment();
+
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, ConcurrencyLimitFilter.RETRY_AFTER_SECONDS);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(rejectionBody.length);
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(rejectionBody)));
+        }
+
+        meters.accepted.increment();
+
+        var start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            var status = exchange.getResponse().getStatusCode();
+            var dropped = signal == SignalType.ON_ERROR || status != null && status.is5xxServerError();
+            limiter.release(System.nanoTime() - start, dropped);
+        });
+    }
+}
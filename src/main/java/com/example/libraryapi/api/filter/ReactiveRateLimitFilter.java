@@ -0,0 +1,50 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.api.exception.ApiErrors;
+import com.example.libraryapi.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+/**
+ * Versão WebFlux do {@link RateLimitFilter}, com as mesmas regras, chaves e respostas 429.
+ */
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private final EndpointRateLimiter limiter;
+    private final byte[] rejectionBody;
+
+    public ReactiveRateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+            throws IOException {
+        this.limiter = new EndpointRateLimiter(properties, meterRegistry);
+        this.rejectionBody = objectMapper.writeValueAsBytes(new ApiErrors(
+                new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, EndpointRateLimiter.TOO_MANY_REQUESTS_MESSAGE)));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var waitNanos = limiter.tryAcquire(request.getMethodValue(), request.getPath().pathWithinApplication().value(),
+                request.getHeaders().getFirst(limiter.getKeyHeader()), RemoteAddress.of(request));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(EndpointRateLimiter.retryAfterSeconds(waitNanos)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(rejectionBody.length);
+
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(rejectionBody)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.libraryapi.api.filter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import static com.example.libraryapi.api.filter.RequestIdFilter.REQUEST_ID_HEADER;
+import static com.example.libraryapi.api.filter.RequestIdFilter.REQUEST_ID_MDC_KEY;
+
+/**
+ * Versão WebFlux do {@link RequestIdFilter}. Como a requisição troca de thread, o id não vai para o
+ * MDC: fica nos atributos da troca e no contexto do Reactor, sob {@code requestId}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRequestIdFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var requestId = RequestIdFilter.resolve(exchange.getRequest().getHeaders().getFirst(REQUEST_ID_HEADER));
+
+        exchange.getAttributes().put(REQUEST_ID_MDC_KEY, requestId);
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+
+        return chain.filter(exchange).contextWrite(Context.of(REQUEST_ID_MDC_KEY, requestId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.libraryapi.api.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Endereço de origem de uma requisição reativa no mesmo formato de
+ * {@code HttpServletRequest.getRemoteAddr()}.
+ */
+final class RemoteAddress {
+
+    private RemoteAddress() {
+    }
+
+    static String of(ServerHttpRequest request) {
+        var address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
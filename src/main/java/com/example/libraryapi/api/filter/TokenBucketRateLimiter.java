@@ -0,0 +1,92 @@
+package com.example.libraryapi.api.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets por cliente, distribuídos em stripes com lock próprio. Cada stripe é um LRU
+ * limitado, de modo que clientes inativos são descartados e a memória não cresce sem limite.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final LongSupplier clock;
+    private final Map<String, Bucket>[] stripes;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int stripes, int maxClientsPerStripe) {
+        this(capacity, refillPerSecond, stripes, maxClientsPerStripe, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketRateLimiter(int capacity, double refillPerSecond, int stripes, int maxClientsPerStripe, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidade e taxa de reposição devem ser positivas.");
+        }
+
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.clock = clock;
+        this.stripes = new Map[stripes];
+
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxClientsPerStripe;
+                }
+            };
+        }
+    }
+
+    /**
+     * @return zero quando a requisição é permitida, ou os nanossegundos até o próximo token.
+     */
+    public long tryAcquire(String key) {
+        var stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        var now = clock.getAsLong();
+
+        synchronized (stripe) {
+            var bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+            bucket.refill(now);
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+
+            return (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+        }
+    }
+
+    public int trackedClients() {
+        var total = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+
+        return total;
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -3,13 +3,16 @@ package com.example.libraryapi.api.model.entity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -30,7 +33,25 @@ public class Book {
     @Column
     private String isbn;
 
+    @Column(unique = true)
+    private Long isbnKey;
+
     @OneToMany(mappedBy = "book")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Loan> loans;
 
+    @Version
+    @Column
+    private Long version;
+
+    @Column
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        lastModified = Instant.now();
+    }
+
 }
@@ -0,0 +1,59 @@
+package com.example.libraryapi.api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Registro de alteração de um livro ou empréstimo. O id é a sequência monotônica usada na
+ * sincronização incremental; exclusões ficam registradas como tombstones ({@link Operation#DELETE}).
+ */
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(columnList = "entityType, entityId"))
+public class ChangeLog {
+
+    public enum EntityType {
+        BOOK,
+        LOAN
+    }
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Operation operation;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    public static ChangeLog of(EntityType entityType, Long entityId, Operation operation) {
+        return ChangeLog.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .changedAt(Instant.now())
+                .build();
+    }
+}
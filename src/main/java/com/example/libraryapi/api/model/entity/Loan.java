@@ -37,4 +37,8 @@ public class Loan {
     @Column
     private Boolean returned;
 
+    @Version
+    @Column
+    private Long version;
+
 }
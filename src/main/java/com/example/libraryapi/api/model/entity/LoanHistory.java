@@ -0,0 +1,90 @@
+package com.example.libraryapi.api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Empréstimo devolvido e arquivado fora da tabela de empréstimos ativos. A coluna
+ * {@code loanMonth} (aaaaMM da data do empréstimo) é a chave de particionamento por período.
+ */
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(columnList = "loanMonth"),
+        @Index(columnList = "book_id"),
+        @Index(columnList = "customer")
+})
+public class LoanHistory implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer loanMonth;
+
+    @Column(length = 100)
+    private String customer;
+
+    @Column
+    private String email;
+
+    @JoinColumn(name = "book_id")
+    @ManyToOne
+    private Book book;
+
+    @Column
+    private LocalDate loanDate;
+
+    @Column
+    private Instant archivedAt;
+
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private boolean newEntry = true;
+
+    public static LoanHistory of(Loan loan) {
+        return LoanHistory.builder()
+                .id(loan.getId())
+                .loanMonth(loan.getLoanDate().getYear() * 100 + loan.getLoanDate().getMonthValue())
+                .customer(loan.getCustomer())
+                .email(loan.getEmail())
+                .book(loan.getBook())
+                .loanDate(loan.getLoanDate())
+                .archivedAt(Instant.now())
+                .build();
+    }
+
+    public Loan toLoan() {
+        return Loan.builder()
+                .id(id)
+                .customer(customer)
+                .email(email)
+                .book(book)
+                .loanDate(loanDate)
+                .returned(true)
+                .build();
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+
+    @PostLoad
+    @PostPersist
+    private void markNotNew() {
+        newEntry = false;
+    }
+}
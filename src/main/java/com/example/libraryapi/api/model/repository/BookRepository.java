@@ -3,6 +3,8 @@ package com.example.libraryapi.api.model.repository;
 import com.example.libraryapi.api.model.entity.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -10,4 +12,12 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     Optional<Book> findByIsbn(String isbn);
 
+    List<Book> findByIdIn(Collection<Long> ids);
+
+    boolean existsByIsbnKey(long isbnKey);
+
+    Optional<Book> findByIsbnKey(long isbnKey);
+
+    List<Book> findByIsbnKeyIn(Collection<Long> isbnKeys);
+
 }
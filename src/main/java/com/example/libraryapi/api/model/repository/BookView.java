@@ -0,0 +1,42 @@
+package com.example.libraryapi.api.model.repository;
+
+import com.example.libraryapi.api.model.entity.Book;
+import lombok.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Linha da tabela de livros lida pelo {@link ReactiveBookRepository}. É um tipo próprio porque,
+ * com JPA e R2DBC no classpath, repositórios de entidades {@code @Entity} são atribuídos ao JPA.
+ */
+@Value
+@Table("book")
+public class BookView {
+
+    @Id
+    Long id;
+    String title;
+    String author;
+    String isbn;
+    Long isbnKey;
+    Long version;
+    Instant lastModified;
+
+    public static BookView probe(Long id, String title, String author, String isbn) {
+        return new BookView(id, title, author, isbn, null, null, null);
+    }
+
+    public Book toBook() {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .isbn(isbn)
+                .isbnKey(isbnKey)
+                .version(version)
+                .lastModified(lastModified)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.libraryapi.api.model.repository;
+
+import com.example.libraryapi.api.model.entity.ChangeLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+    @Query(value = "select c from ChangeLog c where c.id > :since order by c.id")
+    List<ChangeLog> findSince(@Param("since") long since, Pageable pageable);
+
+    /**
+     * Remove os registros anteriores a {@code before} que já foram superados por um registro mais
+     * recente da mesma entidade. O último registro de cada entidade, inclusive tombstones, é mantido.
+     */
+    @Modifying
+    @Query(value =
+            "delete from ChangeLog c " +
+            "where c.changedAt < :before and exists (" +
+            "  select n.id from ChangeLog n " +
+            "  where n.entityType = c.entityType and n.entityId = c.entityId and n.id > c.id)")
+    int deleteSuperseded(@Param("before") Instant before);
+}
@@ -0,0 +1,27 @@
+package com.example.libraryapi.api.model.repository;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.LoanHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LoanHistoryRepository extends JpaRepository<LoanHistory, Long> {
+
+    @Query(value = "select l from LoanHistory l join fetch l.book b where b.isbn = :isbn or l.customer = :customer",
+           countQuery = "select count(l) from LoanHistory l join l.book b where b.isbn = :isbn or l.customer = :customer")
+    Page<LoanHistory> findByBookIsbnOrCustomer(@Param("isbn") String isbn,
+                                               @Param("customer") String customer,
+                                               Pageable pageable);
+
+    @Query(value = "select count(l) from LoanHistory l join l.book b where b.isbn = :isbn or l.customer = :customer")
+    long countByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer);
+
+    @Query(value = "select l from LoanHistory l join fetch l.book where l.book = :book",
+           countQuery = "select count(l) from LoanHistory l where l.book = :book")
+    Page<LoanHistory> findByBook(@Param("book") Book book, Pageable pageable);
+
+    long countByBook(Book book);
+}
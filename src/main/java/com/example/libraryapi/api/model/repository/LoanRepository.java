@@ -19,13 +19,48 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
             "where l.book = :book and (l.returned is null or l.returned is false)")
     boolean existsByBookAndNotReturned(@Param("book") Book book);
 
-    @Query(value = "select l from Loan l join l.book b where b.isbn = :isbn or l.customer = :customer")
+    @Query(value = "select l from Loan l join fetch l.book b where b.isbn = :isbn or l.customer = :customer",
+           countQuery = "select count(l) from Loan l join l.book b where b.isbn = :isbn or l.customer = :customer")
     Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn,
                                         @Param("customer") String customer,
                                         Pageable pageable);
 
-    Page<Loan> findByBook(Book book, Pageable pageable);
+    @Query(value = "select l.id as id, l.customer as customer, l.email as email " +
+                   "from Loan l join l.book b where b.isbn = :isbn or l.customer = :customer",
+           countQuery = "select count(l) from Loan l join l.book b where b.isbn = :isbn or l.customer = :customer")
+    Page<LoanSummary> findSummariesByBookIsbnOrCustomer(@Param("isbn") String isbn,
+                                                        @Param("customer") String customer,
+                                                        Pageable pageable);
 
-    @Query(value = "select l from Loan l where l.loanDate <= :threeDaysAgo and (l.returned is null or l.returned is false)")
+    @Query(value = "select l from Loan l join fetch l.book where l.book = :book",
+           countQuery = "select count(l) from Loan l where l.book = :book")
+    Page<Loan> findByBook(@Param("book") Book book, Pageable pageable);
+
+    @Query(value = "select l.id as id, l.customer as customer, l.email as email from Loan l where l.book = :book",
+           countQuery = "select count(l) from Loan l where l.book = :book")
+    Page<LoanSummary> findSummariesByBook(@Param("book") Book book, Pageable pageable);
+
+    @Query(value =
+            "select count(l) as count, coalesce(max(l.id), 0) as maxId, coalesce(sum(l.version), 0) as versionSum, " +
+            "coalesce(sum(b.version), 0) as bookVersionSum " +
+            "from Loan l join l.book b " +
+            "where l.book = :book")
+    LoanVersionSummary summarizeVersionsByBook(@Param("book") Book book);
+
+    @Query(value =
+            "select count(l) as count, coalesce(max(l.id), 0) as maxId, coalesce(sum(l.version), 0) as versionSum, " +
+            "coalesce(sum(b.version), 0) as bookVersionSum " +
+            "from Loan l join l.book b " +
+            "where b.isbn = :isbn or l.customer = :customer")
+    LoanVersionSummary summarizeVersionsByBookIsbnOrCustomer(@Param("isbn") String isbn,
+                                                            @Param("customer") String customer);
+
+    @Query(value = "select l from Loan l join fetch l.book where l.returned = true and l.loanDate < :loanDate order by l.id")
+    List<Loan> findReturnedBefore(@Param("loanDate") LocalDate loanDate, Pageable pageable);
+
+    @Query(value = "select l from Loan l join fetch l.book where l.returned is null or l.returned is false")
+    List<Loan> findNotReturned();
+
+    @Query(value = "select l from Loan l join fetch l.book where l.loanDate <= :threeDaysAgo and (l.returned is null or l.returned is false)")
     List<Loan> findByLoanDateLessThanAndNotReturned(@Param("threeDaysAgo") LocalDate threeDaysAgo);
 }
@@ -0,0 +1,11 @@
+package com.example.libraryapi.api.model.repository;
+
+public interface LoanSummary {
+
+    Long getId();
+
+    String getCustomer();
+
+    String getEmail();
+
+}
@@ -0,0 +1,17 @@
+package com.example.libraryapi.api.model.repository;
+
+public interface LoanVersionSummary {
+
+    long getCount();
+
+    long getMaxId();
+
+    long getVersionSum();
+
+    /**
+     * Soma das versões dos livros dos empréstimos: a listagem inclui dados do livro, que mudam sem
+     * alterar a versão do empréstimo.
+     */
+    long getBookVersionSum();
+
+}
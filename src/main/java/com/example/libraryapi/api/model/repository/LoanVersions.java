@@ -0,0 +1,13 @@
+package com.example.libraryapi.api.model.repository;
+
+import lombok.Value;
+
+@Value
+public class LoanVersions implements LoanVersionSummary {
+
+    long count;
+    long maxId;
+    long versionSum;
+    long bookVersionSum;
+
+}
@@ -0,0 +1,48 @@
+package com.example.libraryapi.api.model.repository;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import lombok.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Linha de empréstimo já unida ao livro, lida pelo {@link ReactiveLoanRepository}. O R2DBC não
+ * resolve associações, então a junção é feita na consulta e {@link #toLoan()} remonta o grafo
+ * usado nas representações.
+ */
+@Value
+@Table("loan")
+public class LoanView {
+
+    @Id
+    Long id;
+    String customer;
+    String email;
+    LocalDate loanDate;
+    Boolean returned;
+    Long version;
+    Long bookId;
+    String bookTitle;
+    String bookAuthor;
+    String bookIsbn;
+
+    public Loan toLoan() {
+        return Loan.builder()
+                .id(id)
+                .customer(customer)
+                .email(email)
+                .loanDate(loanDate)
+                .returned(returned)
+                .version(version)
+                .book(Book.builder()
+                        .id(bookId)
+                        .title(bookTitle)
+                        .author(bookAuthor)
+                        .isbn(bookIsbn)
+                        .build())
+                .build();
+    }
+}
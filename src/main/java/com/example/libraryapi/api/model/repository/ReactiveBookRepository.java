@@ -0,0 +1,12 @@
+package com.example.libraryapi.api.model.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ReactiveBookRepository extends R2dbcRepository<BookView, Long> {
+
+    Flux<BookView> findByIsbnKeyIn(Collection<Long> isbnKeys);
+
+}
@@ -0,0 +1,40 @@
+package com.example.libraryapi.api.model.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de empréstimos para a pilha reativa. As consultas são fixas (ordenadas por id) porque o
+ * R2DBC não aplica {@code Pageable} a {@code @Query}; a paginação chega como limite e deslocamento.
+ */
+public interface ReactiveLoanRepository extends Repository<LoanView, Long> {
+
+    String SELECT_VIEW = "select l.id, l.customer, l.email, l.loan_date, l.returned, l.version, " +
+            "b.id as book_id, b.title as book_title, b.author as book_author, b.isbn as book_isbn " +
+            "from loan l join book b on b.id = l.book_id ";
+
+    String SELECT_VERSIONS = "select count(l.id) as count, coalesce(max(l.id), 0) as max_id, " +
+            "coalesce(sum(l.version), 0) as version_sum, coalesce(sum(b.version), 0) as book_version_sum " +
+            "from loan l join book b on b.id = l.book_id ";
+
+    @Query(SELECT_VIEW + "where b.isbn = :isbn or l.customer = :customer order by l.id limit :limit offset :offset")
+    Flux<LoanView> findByBookIsbnOrCustomer(String isbn, String customer, int limit, long offset);
+
+    @Query("select count(l.id) from loan l join book b on b.id = l.book_id where b.isbn = :isbn or l.customer = :customer")
+    Mono<Long> countByBookIsbnOrCustomer(String isbn, String customer);
+
+    @Query(SELECT_VIEW + "where l.book_id = :bookId order by l.id limit :limit offset :offset")
+    Flux<LoanView> findByBookId(Long bookId, int limit, long offset);
+
+    @Query("select count(l.id) from loan l where l.book_id = :bookId")
+    Mono<Long> countByBookId(Long bookId);
+
+    @Query(SELECT_VERSIONS + "where l.book_id = :bookId")
+    Mono<LoanVersions> summarizeVersionsByBookId(Long bookId);
+
+    @Query(SELECT_VERSIONS + "where b.isbn = :isbn or l.customer = :customer")
+    Mono<LoanVersions> summarizeVersionsByBookIsbnOrCustomer(String isbn, String customer);
+
+}
@@ -1,7 +1,10 @@
 package com.example.libraryapi.api.resource;
 
 import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.BookLookupDTO;
+import com.example.libraryapi.api.dto.BookSuggestionDTO;
 import com.example.libraryapi.api.dto.LoanDTO;
+import com.example.libraryapi.api.dto.PageResponse;
 import com.example.libraryapi.api.model.entity.Book;
 import com.example.libraryapi.service.BookService;
 import com.example.libraryapi.service.LoanService;
@@ -12,22 +15,32 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/books")
 @Tag(name = "Book API")
+@Profile("!reactive")
 @Slf4j
 public class BookController {
 
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    /**
+     * Uma consulta por ids ou ISBNs custa um token do rate limit; o limite evita que ela se
+     * desdobre em um número arbitrário de consultas {@code IN}.
+     */
+    private static final int MAX_LOOKUP_SIZE = 400;
+
     @Autowired
     private BookService service;
 
@@ -52,12 +65,17 @@ public class BookController {
 
     @GetMapping("{id}")
     @Operation(description = "OBTAIN A BOOK DETAILS BY ID")
-    public BookDTO get(@PathVariable Long id) {
+    public BookDTO get(@PathVariable Long id, @RequestParam(required = false) String fields, WebRequest request) {
         log.info("OBTAINING DETAILS FOR BOOK ID: {}", id);
 
-        return service.getById(id)
-                .map(book -> modelMapper.map(book, BookDTO.class))
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        var selection = Fields.parse(fields, Fields.BOOK);
+        var book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        var etag = ETags.of(book, selection, ETags.negotiate(request));
+        if (request.checkNotModified(etag, ETags.lastModified(book))) {
+            return null;
+        }
+
+        return Representations.book(modelMapper, book, selection);
     }
 
     @DeleteMapping("{id}")
@@ -88,37 +106,93 @@ public class BookController {
 
     @GetMapping
     @Operation(description = "FIND BOOK BY PARAMS")
-    public Page<BookDTO> find(BookDTO dto, Pageable pageable) {
+    public PageResponse<BookDTO> find(BookDTO dto, Pageable pageable, @RequestParam(required = false) String fields) {
+        var selection = Fields.parse(fields, Fields.BOOK);
         var filter = modelMapper.map(dto, Book.class);
 
         var result = service.find(filter, pageable);
 
-        var list = result
-                .getContent()
+        return PageResponse.of(result, entity -> Representations.book(modelMapper, entity, selection));
+    }
+
+    @GetMapping("autocomplete")
+    @Operation(description = "AUTOCOMPLETE BOOK TITLES AND AUTHORS")
+    public List<BookSuggestionDTO> autocomplete(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return service.autocomplete(query, Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT)))
                 .stream()
-                .map(entity -> modelMapper.map(entity, BookDTO.class))
+                .map(suggestion -> BookSuggestionDTO.builder()
+                        .field(suggestion.getField())
+                        .text(suggestion.getText())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(description = "OBTAIN SEVERAL BOOKS BY ID")
+    public List<BookLookupDTO> getByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        log.info("OBTAINING DETAILS FOR {} BOOK IDS", ids.size());
+        checkLookupSize(ids);
+
+        var selection = Fields.parse(fields, Fields.BOOK);
+        var books = service.getByIds(ids);
+
+        return ids.stream()
+                .map(id -> lookup(books.get(id), selection).id(id).build())
                 .collect(Collectors.toList());
+    }
+
+    @GetMapping(params = {"isbns", "!ids"})
+    @Operation(description = "OBTAIN SEVERAL BOOKS BY ISBN")
+    public List<BookLookupDTO> getByIsbns(@RequestParam List<String> isbns, @RequestParam(required = false) String fields) {
+        log.info("OBTAINING DETAILS FOR {} BOOK ISBNS", isbns.size());
+        checkLookupSize(isbns);
+
+        var selection = Fields.parse(fields, Fields.BOOK);
+        var books = service.getByIsbns(isbns);
 
-        return new PageImpl<>(list, pageable, result.getTotalElements());
+        return isbns.stream()
+                .map(isbn -> lookup(books.get(isbn), selection).isbn(isbn).build())
+                .collect(Collectors.toList());
     }
 
     @GetMapping("{id}/loans")
-    public Page<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable) {
+    public PageResponse<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable,
+                                             @RequestParam(required = false) String fields,
+                                             @RequestParam(defaultValue = "false") boolean history,
+                                             WebRequest request) {
+        var selection = Fields.parse(fields, Fields.LOAN);
         var book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        var result = loanService.getLoansByBook(book, pageable);
+        var versions = loanService.getLoanVersionsByBook(book);
+        var resource = "book-" + id + "-loans" + (history ? "-history" : "");
+        var etag = ETags.of(resource, versions, pageable, selection, ETags.negotiate(request));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
 
-        var list = result.getContent()
-                .stream()
-                .map(loan -> {
-                    var loanBook = loan.getBook();
-                    var bookDTO = modelMapper.map(loanBook, BookDTO.class);
-                    var loanDTO = modelMapper.map(loan, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
+        if (!history && selection.within(Fields.LOAN_SUMMARY)) {
+            var summaries = loanService.getLoanSummariesByBook(book, pageable);
 
-                    return loanDTO;})
-                .collect(Collectors.toList());
+            return PageResponse.of(summaries, loan -> Representations.loan(loan, selection));
+        }
 
-        return new PageImpl<>(list, pageable, result.getTotalElements());
+        var result = loanService.getLoansByBook(book, pageable, history);
+
+        return PageResponse.of(result, loan -> Representations.loan(modelMapper, loan, selection));
     }
 
+    private BookLookupDTO.BookLookupDTOBuilder lookup(Book book, Fields selection) {
+        if (book == null) {
+            return BookLookupDTO.builder().found(false);
+        }
+
+        return BookLookupDTO.builder().found(true).book(Representations.book(modelMapper, book, selection));
+    }
+
+    private static void checkLookupSize(List<?> keys) {
+        if (keys.size() > MAX_LOOKUP_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Informe no máximo " + MAX_LOOKUP_SIZE + " livros por consulta.");
+        }
+    }
 }
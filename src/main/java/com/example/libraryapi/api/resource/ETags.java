@@ -0,0 +1,113 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.repository.LoanVersionSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ETags das leituras. A mesma versão é servida em JSON, CBOR ou Smile conforme o {@code Accept}, e
+ * cada representação tem seu próprio ETag: o tipo negociado entra na tag, e as respostas levam
+ * {@code Vary: Accept} (ver {@code WebConfig} e {@code ReactiveConfig}).
+ */
+final class ETags {
+
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Tipos produzidos pelos conversores de mensagem do Spring MVC, na ordem em que são consultados.
+     */
+    static final List<MediaType> SERVLET_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * Tipos produzidos pelos codecs do WebFlux, que não escreve CBOR.
+     */
+    static final List<MediaType> REACTIVE_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, APPLICATION_SMILE);
+
+    private ETags() {
+    }
+
+    static String of(Book book, Fields fields, MediaType mediaType) {
+        return quote("book-" + book.getId() + "-" + Objects.requireNonNullElse(book.getVersion(), 0L)
+                + fields.tag() + "-" + mediaType.getSubtype());
+    }
+
+    static String of(String resource, LoanVersionSummary summary, Pageable pageable, Fields fields, MediaType mediaType) {
+        return quote(resource
+                + "-" + summary.getCount()
+                + "-" + summary.getMaxId()
+                + "-" + summary.getVersionSum()
+                + "-" + summary.getBookVersionSum()
+                + "-" + page(pageable)
+                + fields.tag()
+                + "-" + mediaType.getSubtype());
+    }
+
+    static MediaType negotiate(WebRequest request) {
+        var values = request.getHeaderValues(HttpHeaders.ACCEPT);
+        try {
+            return negotiate(MediaType.parseMediaTypes(values == null ? List.of() : Arrays.asList(values)),
+                    SERVLET_MEDIA_TYPES);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    static MediaType negotiate(ServerWebExchange exchange) {
+        try {
+            return negotiate(exchange.getRequest().getHeaders().getAccept(), REACTIVE_MEDIA_TYPES);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    /**
+     * Antecipa a escolha da negociação de conteúdo, que só acontece ao escrever a resposta: o
+     * primeiro tipo produzível compatível com o {@code Accept} de maior qualidade e especificidade.
+     * Sem {@code Accept}, ou sem nenhum compatível, vale JSON.
+     */
+    static MediaType negotiate(List<MediaType> accepted, List<MediaType> producible) {
+        var sorted = new ArrayList<>(accepted);
+        MediaType.sortBySpecificityAndQuality(sorted);
+
+        for (var acceptable : sorted) {
+            if (acceptable.getQualityValue() == 0) {
+                continue;
+            }
+            for (var candidate : producible) {
+                if (acceptable.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    static long lastModified(Book book) {
+        return book.getLastModified() == null ? -1 : book.getLastModified().toEpochMilli();
+    }
+
+    private static String page(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged";
+        }
+
+        return pageable.getPageNumber() + "-" + pageable.getPageSize()
+                + "-" + Integer.toHexString(pageable.getSort().toString().hashCode());
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.libraryapi.api.resource;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Seleção de campos informada no parâmetro {@code fields} (ex.: {@code fields=id,customer}).
+ * Sem o parâmetro, todos os campos são incluídos.
+ */
+final class Fields {
+
+    static final Set<String> BOOK = Set.of("id", "title", "author", "isbn");
+    static final Set<String> LOAN = Set.of("id", "isbn", "customer", "email", "book");
+
+    /**
+     * Campos de empréstimo atendidos pela projeção {@code LoanSummary}, sem carregar o livro.
+     */
+    static final Set<String> LOAN_SUMMARY = Set.of("id", "customer", "email");
+
+    private static final Fields ALL = new Fields(null);
+
+    private final Set<String> names;
+
+    private Fields(Set<String> names) {
+        this.names = names;
+    }
+
+    static Fields parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        var names = new TreeSet<String>();
+        for (var name : fields.split(",")) {
+            var trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(trimmed)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido em fields: " + trimmed);
+            }
+            names.add(trimmed);
+        }
+
+        return names.isEmpty() ? ALL : new Fields(Collections.unmodifiableSet(names));
+    }
+
+    boolean isAll() {
+        return names == null;
+    }
+
+    boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    boolean within(Set<String> candidates) {
+        return names != null && candidates.containsAll(names);
+    }
+
+    <T> T pick(String name, Supplier<T> value) {
+        return includes(name) ? value.get() : null;
+    }
+
+    /**
+     * Sufixo que diferencia as representações parciais no ETag.
+     */
+    String tag() {
+        return names == null ? "" : "-" + String.join(".", names);
+    }
+}
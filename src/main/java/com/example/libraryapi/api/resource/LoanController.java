@@ -1,8 +1,8 @@
 package com.example.libraryapi.api.resource;
 
-import com.example.libraryapi.api.dto.BookDTO;
 import com.example.libraryapi.api.dto.LoanDTO;
 import com.example.libraryapi.api.dto.LoanFilterDTO;
+import com.example.libraryapi.api.dto.PageResponse;
 import com.example.libraryapi.api.dto.ReturnedLoanDTO;
 import com.example.libraryapi.api.model.entity.Loan;
 import com.example.libraryapi.service.BookService;
@@ -10,18 +10,19 @@ import com.example.libraryapi.service.LoanService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/loans")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class LoanController {
 
@@ -60,22 +61,27 @@ public class LoanController {
     }
 
     @GetMapping
-    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable request) {
-        var result = loanService.find(dto, request);
-
-        var list = result
-                .getContent()
-                .stream()
-                .map(entity -> {
-                    var book = entity.getBook();
-                    var bookDTO = modelMapper.map(book, BookDTO.class);
-                    var loanDTO = modelMapper.map(entity, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
-
-                    return loanDTO;
-                })
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(list, request, result.getTotalElements());
+    public PageResponse<LoanDTO> find(LoanFilterDTO dto, Pageable request,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestParam(defaultValue = "false") boolean history,
+                                      WebRequest webRequest) {
+        var selection = Fields.parse(fields, Fields.LOAN);
+        var versions = loanService.getLoanVersions(dto);
+        var resource = "loans-" + Integer.toHexString(Objects.hash(dto.getIsbn(), dto.getCustomer()))
+                + (history ? "-history" : "");
+        var etag = ETags.of(resource, versions, request, selection, ETags.negotiate(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (!history && selection.within(Fields.LOAN_SUMMARY)) {
+            var summaries = loanService.findSummaries(dto, request);
+
+            return PageResponse.of(summaries, loan -> Representations.loan(loan, selection));
+        }
+
+        var result = loanService.find(dto, request, history);
+
+        return PageResponse.of(result, entity -> Representations.loan(modelMapper, entity, selection));
     }
 }
@@ -0,0 +1,80 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.service.event.LoanFeed;
+import com.example.libraryapi.service.event.LoanFeedEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Alternativa ao polling de {@code GET /api/loans} e {@code GET /api/books/{id}/loans}: transmite
+ * como Server-Sent Events os empréstimos criados e devolvidos, com a disponibilidade do livro.
+ * Um cliente reconectado envia {@code Last-Event-ID} e recebe o que perdeu, se ainda estiver no
+ * buffer de replay; caso contrário (inclusive após um restart do servidor) recebe um evento
+ * {@code reset} e deve recarregar as listagens.
+ */
+@RestController
+@RequestMapping("/api/loans/feed")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class LoanFeedController {
+
+    private final LoanFeed loanFeed;
+
+    @Value("${application.loans.feed.timeout}")
+    private Duration timeout;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter feed(@RequestParam(required = false) String isbn,
+                           @RequestParam(required = false) String customer,
+                           @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+
+        var subscription = loanFeed.subscribe(isbn, customer, lastEventId, new EmitterSubscriber(emitter))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Limite de assinantes do feed atingido."));
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+
+        return emitter;
+    }
+
+    @RequiredArgsConstructor
+    private static class EmitterSubscriber implements LoanFeed.Subscriber {
+
+        private final SseEmitter emitter;
+
+        @Override
+        public void send(LoanFeedEntry entry) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(entry.getEventId())
+                    .name(entry.getType())
+                    .data(entry, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void reset() throws IOException {
+            emitter.send(SseEmitter.event().name("reset").data(""));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.BookLookupDTO;
+import com.example.libraryapi.api.dto.BookSuggestionDTO;
+import com.example.libraryapi.api.dto.LoanDTO;
+import com.example.libraryapi.api.dto.PageResponse;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.repository.BookView;
+import com.example.libraryapi.api.model.repository.LoanView;
+import com.example.libraryapi.api.model.repository.ReactiveBookRepository;
+import com.example.libraryapi.api.model.repository.ReactiveLoanRepository;
+import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.LoanService;
+import com.example.libraryapi.service.support.Isbn;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static com.example.libraryapi.api.resource.ReactivePages.blocking;
+
+/**
+ * Variante reativa de {@link BookController}, ativa no perfil {@code reactive}. As leituras vão
+ * direto ao banco via R2DBC; as escritas continuam no {@link BookService}, que mantém os índices
+ * em memória, executadas no scheduler elástico.
+ */
+@RestController
+@RequestMapping("/api/books")
+@Tag(name = "Book API")
+@Profile("reactive")
+@Slf4j
+public class ReactiveBookController {
+
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    /**
+     * Uma consulta por ids ou ISBNs custa um token do rate limit; o limite evita que ela se
+     * desdobre em um número arbitrário de consultas {@code IN}.
+     */
+    private static final int MAX_LOOKUP_SIZE = 400;
+
+    private static final int MAX_IN_CLAUSE = 500;
+
+    /**
+     * Quantos livros são pedidos ao banco por vez na listagem em stream; o próximo lote só é
+     * solicitado quando o cliente consome o anterior.
+     */
+    private static final int STREAM_BATCH_SIZE = 64;
+
+    @Autowired
+    private ReactiveBookRepository repository;
+
+    @Autowired
+    private ReactiveLoanRepository loanRepository;
+
+    @Autowired
+    private BookService service;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(description = "CREATE A BOOK")
+    public Mono<BookDTO> create(@RequestBody @Valid BookDTO dto) {
+        log.info("CREATING A BOOK FOR ISBN: {}", dto.getIsbn());
+
+        return blocking(() -> service.save(modelMapper.map(dto, Book.class)))
+                .map(entity -> modelMapper.map(entity, BookDTO.class));
+    }
+
+    @GetMapping("{id}")
+    @Operation(description = "OBTAIN A BOOK DETAILS BY ID")
+    public Mono<BookDTO> get(@PathVariable Long id, @RequestParam(required = false) String fields,
+                             ServerWebExchange exchange) {
+        log.info("OBTAINING DETAILS FOR BOOK ID: {}", id);
+
+        var selection = Fields.parse(fields, Fields.BOOK);
+        var mediaType = ETags.negotiate(exchange);
+
+        return repository.findById(id)
+                .map(BookView::toBook)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .filter(book -> !exchange.checkNotModified(ETags.of(book, selection, mediaType),
+                        Objects.requireNonNullElse(book.getLastModified(), Instant.MIN)))
+                .map(book -> Representations.book(modelMapper, book, selection));
+    }
+
+    @DeleteMapping("{id}")
+    @Operation(description = "DELETE A BOOK BY ID")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable Long id) {
+        log.info("DELETING BOOK OF ID: {}", id);
+
+        return blocking(() -> {
+            var book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            service.delete(book);
+            return book;
+        }).then();
+    }
+
+    @PutMapping("{id}")
+    @Operation(description = "UPDATE A BOOK")
+    public Mono<BookDTO> update(@PathVariable Long id, @RequestBody BookDTO dto) {
+        log.info("UPDATING BOOK OF ID: {}", id);
+
+        return blocking(() -> {
+            var book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            book.setAuthor(dto.getAuthor());
+            book.setTitle(dto.getTitle());
+            return service.update(book);
+        }).map(book -> modelMapper.map(book, BookDTO.class));
+    }
+
+    @GetMapping
+    @Operation(description = "FIND BOOK BY PARAMS")
+    public Mono<PageResponse<BookDTO>> find(BookDTO dto, Pageable pageable,
+                                            @RequestParam(required = false) String fields) {
+        var selection = Fields.parse(fields, Fields.BOOK);
+
+        return repository.findBy(example(dto), query -> query.page(pageable))
+                .map(page -> PageResponse.of(page, view -> Representations.book(modelMapper, view.toBook(), selection)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "STREAM BOOKS BY PARAMS")
+    public Flux<BookDTO> stream(BookDTO dto, Pageable pageable, @RequestParam(required = false) String fields) {
+        var selection = Fields.parse(fields, Fields.BOOK);
+
+        return repository.findBy(example(dto), query -> query.sortBy(pageable.getSort()).all())
+                .limitRate(STREAM_BATCH_SIZE)
+                .map(view -> Representations.book(modelMapper, view.toBook(), selection));
+    }
+
+    @GetMapping("autocomplete")
+    @Operation(description = "AUTOCOMPLETE BOOK TITLES AND AUTHORS")
+    public Flux<BookSuggestionDTO> autocomplete(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return Flux.fromIterable(service.autocomplete(query, Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT))))
+                .map(suggestion -> BookSuggestionDTO.builder()
+                        .field(suggestion.getField())
+                        .text(suggestion.getText())
+                        .build());
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(description = "OBTAIN SEVERAL BOOKS BY ID")
+    public Mono<List<BookLookupDTO>> getByIds(@RequestParam List<Long> ids,
+                                              @RequestParam(required = false) String fields) {
+        log.info("OBTAINING DETAILS FOR {} BOOK IDS", ids.size());
+        checkLookupSize(ids);
+
+        var selection = Fields.parse(fields, Fields.BOOK);
+
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .buffer(MAX_IN_CLAUSE)
+                .concatMap(repository::findAllById)
+                .map(BookView::toBook)
+                .collectMap(Book::getId)
+                .map(books -> ids.stream()
+                        .map(id -> lookup(books.get(id), selection).id(id).build())
+                        .collect(Collectors.toList()));
+    }
+
+    @GetMapping(params = {"isbns", "!ids"})
+    @Operation(description = "OBTAIN SEVERAL BOOKS BY ISBN")
+    public Mono<List<BookLookupDTO>> getByIsbns(@RequestParam List<String> isbns,
+                                                @RequestParam(required = false) String fields) {
+        log.info("OBTAINING DETAILS FOR {} BOOK ISBNS", isbns.size());
+        checkLookupSize(isbns);
+
+        var selection = Fields.parse(fields, Fields.BOOK);
+        var keys = new HashMap<String, Long>();
+        isbns.forEach(isbn -> Isbn.parse(isbn).ifPresent(isbnKey -> keys.put(isbn, isbnKey)));
+
+        return Flux.fromIterable(new LinkedHashSet<>(keys.values()))
+                .buffer(MAX_IN_CLAUSE)
+                .concatMap(repository::findByIsbnKeyIn)
+                .map(BookView::toBook)
+                .collectMap(Book::getIsbnKey)
+                .map(books -> isbns.stream()
+                        .map(isbn -> lookup(books.get(keys.get(isbn)), selection).isbn(isbn).build())
+                        .collect(Collectors.toList()));
+    }
+
+    @GetMapping("{id}/loans")
+    public Mono<PageResponse<LoanDTO>> loansByBook(@PathVariable Long id, Pageable pageable,
+                                                   @RequestParam(required = false) String fields,
+                                                   @RequestParam(defaultValue = "false") boolean history,
+                                                   ServerWebExchange exchange) {
+        var selection = Fields.parse(fields, Fields.LOAN);
+        var resource = "book-" + id + "-loans" + (history ? "-history" : "");
+        var mediaType = ETags.negotiate(exchange);
+
+        return repository.existsById(id)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .then(loanRepository.summarizeVersionsByBookId(id))
+                .filter(versions -> !exchange.checkNotModified(ETags.of(resource, versions, pageable, selection, mediaType)))
+                .flatMap(versions -> history || pageable.getSort().isSorted()
+                        ? blocking(() -> loanService.getLoansByBook(service.getById(id).orElseThrow(), pageable, history))
+                        : ReactivePages.page(
+                                loanRepository.findByBookId(id, ReactivePages.limit(pageable), ReactivePages.offset(pageable))
+                                        .map(LoanView::toLoan),
+                                loanRepository.countByBookId(id),
+                                pageable))
+                .map(page -> PageResponse.of(page, loan -> Representations.loan(modelMapper, loan, selection)));
+    }
+
+    private Example<BookView> example(BookDTO dto) {
+        return Example.of(
+                BookView.probe(dto.getId(), dto.getTitle(), dto.getAuthor(), dto.getIsbn()),
+                ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    private BookLookupDTO.BookLookupDTOBuilder lookup(Book book, Fields selection) {
+        if (book == null) {
+            return BookLookupDTO.builder().found(false);
+        }
+
+        return BookLookupDTO.builder().found(true).book(Representations.book(modelMapper, book, selection));
+    }
+
+    private static void checkLookupSize(List<?> keys) {
+        if (keys.size() > MAX_LOOKUP_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Informe no máximo " + MAX_LOOKUP_SIZE + " livros por consulta.");
+        }
+    }
+}
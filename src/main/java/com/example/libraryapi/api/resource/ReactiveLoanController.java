@@ -0,0 +1,96 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.LoanDTO;
+import com.example.libraryapi.api.dto.LoanFilterDTO;
+import com.example.libraryapi.api.dto.PageResponse;
+import com.example.libraryapi.api.dto.ReturnedLoanDTO;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.LoanView;
+import com.example.libraryapi.api.model.repository.ReactiveLoanRepository;
+import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.LoanService;
+import com.example.libraryapi.service.support.Isbn;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static com.example.libraryapi.api.resource.ReactivePages.blocking;
+
+/**
+ * Variante reativa de {@link LoanController}, ativa no perfil {@code reactive}. Listagens ordenadas
+ * ou com histórico usam o {@link LoanService}, pois unem a tabela de arquivo e ordenação arbitrária.
+ */
+@RestController
+@RequestMapping("/api/loans")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveLoanController {
+
+    private final LoanService loanService;
+    private final BookService bookService;
+    private final ReactiveLoanRepository loanRepository;
+    private final ModelMapper modelMapper;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> create(@RequestBody LoanDTO dto) {
+        return blocking(() -> {
+            var book = bookService
+                    .getBookByIsbn(dto.getIsbn())
+                    .orElseThrow(() -> new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Livro não encontrado para o isbn informado."));
+
+            var entity = Loan.builder()
+                    .book(book)
+                    .customer(dto.getCustomer())
+                    .loanDate(LocalDate.now())
+                    .build();
+
+            return loanService.save(entity).getId();
+        });
+    }
+
+    @PatchMapping("{id}")
+    public Mono<Void> returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto) {
+        return blocking(() -> {
+            var loan = loanService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            loan.setReturned(dto.getReturned());
+
+            return loanService.update(loan);
+        }).then();
+    }
+
+    @GetMapping
+    public Mono<PageResponse<LoanDTO>> find(LoanFilterDTO dto, Pageable request,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(defaultValue = "false") boolean history,
+                                            ServerWebExchange exchange) {
+        var selection = Fields.parse(fields, Fields.LOAN);
+        var resource = "loans-" + Integer.toHexString(Objects.hash(dto.getIsbn(), dto.getCustomer()))
+                + (history ? "-history" : "");
+        var isbn = Isbn.canonical(dto.getIsbn());
+        var mediaType = ETags.negotiate(exchange);
+
+        return loanRepository.summarizeVersionsByBookIsbnOrCustomer(isbn, dto.getCustomer())
+                .filter(versions -> !exchange.checkNotModified(ETags.of(resource, versions, request, selection, mediaType)))
+                .flatMap(versions -> history || request.getSort().isSorted()
+                        ? blocking(() -> loanService.find(dto, request, history))
+                        : ReactivePages.page(
+                                loanRepository.findByBookIsbnOrCustomer(isbn, dto.getCustomer(),
+                                                ReactivePages.limit(request), ReactivePages.offset(request))
+                                        .map(LoanView::toLoan),
+                                loanRepository.countByBookIsbnOrCustomer(isbn, dto.getCustomer()),
+                                request))
+                .map(page -> PageResponse.of(page, entity -> Representations.loan(modelMapper, entity, selection)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.libraryapi.api.resource;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Utilitários dos controllers reativos: montagem de páginas a partir de consultas R2DBC e
+ * execução das operações que continuam passando pelos serviços JPA.
+ */
+final class ReactivePages {
+
+    private ReactivePages() {
+    }
+
+    static int limit(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+    }
+
+    static long offset(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+
+    static <T> Mono<Page<T>> page(Flux<T> content, Mono<Long> total, Pageable pageable) {
+        return Mono.zip(content.collectList(), total)
+                .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()));
+    }
+
+    /**
+     * Executa uma chamada bloqueante (serviços e repositórios JPA) fora das threads do event loop.
+     */
+    static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
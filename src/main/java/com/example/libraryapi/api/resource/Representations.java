@@ -0,0 +1,132 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.LoanDTO;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.LoanSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+
+/**
+ * Conversão de entidades e projeções para os DTOs de resposta, respeitando a seleção de campos.
+ *
+ * <p>A representação completa escreve todos os campos, inclusive os nulos. Com {@code fields}, o DTO
+ * devolvido é uma subclasse que escreve apenas os campos selecionados (ver {@link SparseSerializer}):
+ * um campo selecionado e nulo continua aparecendo como {@code null}.
+ */
+final class Representations {
+
+    private Representations() {
+    }
+
+    static BookDTO book(ModelMapper modelMapper, Book book, Fields fields) {
+        if (fields.isAll()) {
+            return modelMapper.map(book, BookDTO.class);
+        }
+
+        var dto = new SparseBook(fields);
+        dto.setId(fields.pick("id", book::getId));
+        dto.setTitle(fields.pick("title", book::getTitle));
+        dto.setAuthor(fields.pick("author", book::getAuthor));
+        dto.setIsbn(fields.pick("isbn", book::getIsbn));
+
+        return dto;
+    }
+
+    static LoanDTO loan(ModelMapper modelMapper, Loan loan, Fields fields) {
+        if (fields.isAll()) {
+            var loanDTO = modelMapper.map(loan, LoanDTO.class);
+            loanDTO.setBook(modelMapper.map(loan.getBook(), BookDTO.class));
+
+            return loanDTO;
+        }
+
+        var dto = new SparseLoan(fields);
+        dto.setId(fields.pick("id", loan::getId));
+        dto.setIsbn(fields.pick("isbn", () -> loan.getBook().getIsbn()));
+        dto.setCustomer(fields.pick("customer", loan::getCustomer));
+        dto.setEmail(fields.pick("email", loan::getEmail));
+        dto.setBook(fields.pick("book", () -> modelMapper.map(loan.getBook(), BookDTO.class)));
+
+        return dto;
+    }
+
+    static LoanDTO loan(LoanSummary loan, Fields fields) {
+        var dto = new SparseLoan(fields);
+        dto.setId(fields.pick("id", loan::getId));
+        dto.setCustomer(fields.pick("customer", loan::getCustomer));
+        dto.setEmail(fields.pick("email", loan::getEmail));
+
+        return dto;
+    }
+
+    interface Sparse {
+
+        Fields selection();
+
+    }
+
+    @JsonSerialize(using = SparseSerializer.class)
+    static final class SparseBook extends BookDTO implements Sparse {
+
+        private final transient Fields selection;
+
+        private SparseBook(Fields selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public Fields selection() {
+            return selection;
+        }
+    }
+
+    @JsonSerialize(using = SparseSerializer.class)
+    static final class SparseLoan extends LoanDTO implements Sparse {
+
+        private final transient Fields selection;
+
+        private SparseLoan(Fields selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public Fields selection() {
+            return selection;
+        }
+    }
+
+    /**
+     * Escreve, com o serializador do DTO completo, apenas as propriedades selecionadas. Por ser
+     * declarado na própria classe, vale para qualquer {@code ObjectMapper} (JSON, CBOR ou Smile).
+     */
+    static final class SparseSerializer extends JsonSerializer<Sparse> {
+
+        @Override
+        public void serialize(Sparse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            var full = provider.findValueSerializer(value.getClass().getSuperclass());
+
+            gen.writeStartObject(value);
+            for (var properties = full.properties(); properties.hasNext(); ) {
+                var property = properties.next();
+                if (value.selection().includes(property.getName())) {
+                    try {
+                        property.serializeAsField(value, gen, provider);
+                    } catch (IOException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw JsonMappingException.from(gen, "Falha ao escrever o campo " + property.getName(), e);
+                    }
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+}
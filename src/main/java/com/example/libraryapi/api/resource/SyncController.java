@@ -0,0 +1,67 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.SyncDTO;
+import com.example.libraryapi.api.dto.SyncLoanDTO;
+import com.example.libraryapi.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Sincronização incremental de livros e empréstimos: em vez de paginar todo o catálogo, o cliente
+ * informa a última posição recebida e baixa apenas o que mudou desde então.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    private final ModelMapper modelMapper;
+
+    @Value("${application.sync.batch-size}")
+    private int batchSize;
+
+    @GetMapping
+    public SyncDTO changes(@RequestParam(defaultValue = "0") long since,
+                           @RequestParam(required = false) Integer limit) {
+        if (since < 0 || limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parâmetros de sincronização inválidos.");
+        }
+
+        var changes = syncService.changesSince(since, limit == null ? batchSize : Math.min(limit, batchSize));
+
+        return SyncDTO.builder()
+                .since(changes.getSince())
+                .next(changes.getNext())
+                .more(changes.isMore())
+                .books(changes.getBooks().stream()
+                        .map(book -> modelMapper.map(book, BookDTO.class))
+                        .collect(Collectors.toList()))
+                .loans(changes.getLoans().stream()
+                        .map(loan -> SyncLoanDTO.builder()
+                                .id(loan.getId())
+                                .bookId(loan.getBook().getId())
+                                .customer(loan.getCustomer())
+                                .email(loan.getEmail())
+                                .loanDate(loan.getLoanDate())
+                                .returned(loan.getReturned())
+                                .build())
+                        .collect(Collectors.toList()))
+                .deletedBooks(changes.getDeletedBooks())
+                .deletedLoans(changes.getDeletedLoans())
+                .build();
+    }
+}
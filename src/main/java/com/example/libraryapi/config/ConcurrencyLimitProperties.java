@@ -0,0 +1,19 @@
+package com.example.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 5;
+    private int maxLimit = 100;
+    private Duration latencyThreshold = Duration.ofMillis(250);
+    private double backoffRatio = 0.9;
+
+}
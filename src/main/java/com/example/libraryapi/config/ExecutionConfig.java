@@ -0,0 +1,77 @@
+package com.example.libraryapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de execução das requisições e dos jobs agendados. Em {@code VIRTUAL}, o Tomcat cria uma
+ * thread virtual por requisição e os jobs de {@link com.example.libraryapi.service.ScheduleService}
+ * rodam em threads virtuais. Em JVMs sem suporte o modo volta para {@code PLATFORM} com um aviso.
+ * Nos dois modos o agendador tem {@code spring.task.scheduling.pool.size} threads, para que um job
+ * longo (o arquivamento, por exemplo) não segure os demais.
+ *
+ * <p>O envio de e-mails fica sempre em threads de plataforma ({@link #mailExecutor(int)}): o
+ * {@code SMTPTransport.sendMessage} do JavaMail é {@code synchronized} e faz a escrita no socket
+ * segurando o monitor, o que prenderia a thread virtual à portadora durante todo o envio. Para
+ * conferir, rode o modo {@code VIRTUAL} com {@code -Djdk.tracePinnedThreads=full}, como faz o
+ * {@code ExecutionModeComparison}.
+ *
+ * <p>Com threads virtuais o número de requisições simultâneas deixa de ser limitado pelo pool do
+ * Tomcat; quem limita o acesso ao banco é o pool do Hikari, e o limite adaptativo de concorrência
+ * evita que as requisições excedentes apenas esperem por conexão.
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig implements SchedulingConfigurer {
+
+    public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private final Optional<ThreadFactory> virtualThreads;
+    private final int schedulingPoolSize;
+
+    public ExecutionConfig(@Value("${application.execution.mode}") ExecutionMode mode,
+                           @Value("${spring.task.scheduling.pool.size}") int schedulingPoolSize,
+                           Environment environment) {
+        this.schedulingPoolSize = schedulingPoolSize;
+        this.virtualThreads = mode == ExecutionMode.VIRTUAL ? VirtualThreads.factory("virtual-") : Optional.empty();
+
+        if (mode == ExecutionMode.VIRTUAL && virtualThreads.isEmpty()) {
+            log.warn("VIRTUAL THREADS ARE NOT AVAILABLE ON JAVA {}; USING PLATFORM THREADS",
+                    System.getProperty("java.specification.version"));
+        } else if (virtualThreads.isPresent()
+                && !environment.getProperty("application.concurrency-limit.enabled", Boolean.class, true)) {
+            log.warn("VIRTUAL THREADS WITHOUT A CONCURRENCY LIMIT: EXCESS REQUESTS WILL QUEUE ON THE JDBC POOL");
+        }
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PlatformExecutor mailExecutor(@Value("${application.email.threads}") int threads) {
+        return new PlatformExecutor("mail-", threads);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executionModeProtocolHandlerCustomizer() {
+        return protocolHandler -> virtualThreads.ifPresent(factory ->
+                protocolHandler.setExecutor(command -> factory.newThread(command).start()));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        virtualThreads.ifPresent(factory ->
+                registrar.setScheduler(new ConcurrentTaskScheduler(Executors.newScheduledThreadPool(schedulingPoolSize, factory))));
+    }
+}
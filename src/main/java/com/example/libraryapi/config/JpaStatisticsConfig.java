@@ -0,0 +1,40 @@
+package com.example.libraryapi.config;
+
+import com.example.libraryapi.config.jpa.HibernateStatisticsEndpoint;
+import com.example.libraryapi.config.jpa.SlowQueryDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class JpaStatisticsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "application.jpa.statistics.enabled", havingValue = "true")
+    public HibernateStatisticsEndpoint hibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new HibernateStatisticsEndpoint(entityManagerFactory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.jpa.slow-query.enabled", havingValue = "true")
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment) {
+        var threshold = environment.getProperty("application.jpa.slow-query.threshold", Duration.class, Duration.ofMillis(500));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource((DataSource) bean, threshold);
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.libraryapi.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.example.libraryapi.config.logging.RingBufferAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoggingConfig {
+
+    private static final String ASYNC_APPENDER_NAME = "ASYNC_FILE";
+
+    @Bean
+    public MeterBinder asyncLoggingMetrics() {
+        return registry -> {
+            var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            var appender = context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender(ASYNC_APPENDER_NAME);
+
+            if (!(appender instanceof RingBufferAppender)) {
+                return;
+            }
+
+            var ringBufferAppender = (RingBufferAppender) appender;
+
+            FunctionCounter.builder("logging.async.dropped", ringBufferAppender, RingBufferAppender::getDroppedEvents)
+                    .description("Log events discarded because the ring buffer was full")
+                    .tag("appender", ASYNC_APPENDER_NAME)
+                    .register(registry);
+
+            Gauge.builder("logging.async.queue.size", ringBufferAppender, RingBufferAppender::getQueueSize)
+                    .description("Log events waiting for the background writer")
+                    .tag("appender", ASYNC_APPENDER_NAME)
+                    .register(registry);
+
+            Gauge.builder("logging.async.queue.capacity", ringBufferAppender, RingBufferAppender::getCapacity)
+                    .tag("appender", ASYNC_APPENDER_NAME)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.libraryapi.config;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Threads de plataforma para trabalho que não deve rodar em uma thread virtual, como I/O feito
+ * dentro de um bloco {@code synchronized}: até o Java 23 a thread virtual fica presa (pinned) à
+ * thread portadora enquanto segura o monitor.
+ *
+ * <p>Não implementa {@link java.util.concurrent.Executor} de propósito: um bean desse tipo desligaria
+ * o {@code applicationTaskExecutor} do Spring Boot, usado no bootstrap adiado dos repositórios.
+ */
+public final class PlatformExecutor {
+
+    private final ExecutorService executor;
+
+    PlatformExecutor(String prefix, int threads) {
+        var threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Executa a tarefa e espera o fim. Chamada de uma thread de plataforma, roda na própria thread;
+     * de uma thread virtual, roda no pool, e a thread virtual só estaciona enquanto espera. Exceções
+     * não verificadas da tarefa são relançadas para quem chamou.
+     */
+    public void run(Runnable task) {
+        if (!VirtualThreads.isVirtual(Thread.currentThread())) {
+            task.run();
+            return;
+        }
+
+        try {
+            CompletableFuture.runAsync(task, executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
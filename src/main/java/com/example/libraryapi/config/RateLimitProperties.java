@@ -0,0 +1,35 @@
+package com.example.libraryapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private String keyHeader = "X-Api-Key";
+    /**
+     * Chaves emitidas para os clientes. Só elas ganham bucket próprio; qualquer outro valor do
+     * cabeçalho é ignorado e o cliente é limitado pelo endereço de origem.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+    private int stripes = 16;
+    private int maxClientsPerStripe = 1024;
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String method;
+        private String path;
+        private int capacity;
+        private double refillPerSecond;
+
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.libraryapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.WebFilter;
+
+import javax.sql.DataSource;
+
+/**
+ * Pilha reativa (perfil {@code reactive}): WebFlux sobre Netty, com as leituras de livros e
+ * empréstimos via R2DBC no mesmo banco usado pelo JPA. Request id, rate limit e limite de
+ * concorrência valem aqui como {@code WebFilter}s, com as mesmas regras e respostas da pilha servlet
+ * (ver {@code RateLimitConfig} e {@code ConcurrencyLimitConfig}). O WebFlux 5.3 não escreve CBOR em
+ * respostas; JSON, NDJSON e Smile ficam disponíveis.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    /**
+     * Com um {@code ConnectionFactory} R2DBC no contexto o Spring Boot deixa de configurar o
+     * {@link DataSource}; as escritas e os jobs continuam em JPA, então o pool JDBC é declarado aqui.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Mesmo {@code Vary: Accept} que o {@code WebConfig} aplica à pilha servlet.
+     */
+    @Bean
+    public WebFilter varyAcceptFilter() {
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getPath().value().startsWith("/api/")) {
+                exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(
+                new ReactivePageableHandlerMethodArgumentResolver(),
+                new ReactiveSortHandlerMethodArgumentResolver());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.libraryapi.config;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.service.event.LoanEventBus;
+import com.example.libraryapi.service.event.LoanEventHandler;
+import com.example.libraryapi.service.ledger.LoanLedger;
+import com.example.libraryapi.service.support.CatalogSnapshot;
+import com.example.libraryapi.service.support.LongHashIndex;
+import com.example.libraryapi.service.support.PrefixIndex;
+import com.example.libraryapi.service.support.ScalableBloomFilter;
+import com.example.libraryapi.service.support.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Configuration
+public class ServiceConfig {
+
+    @Bean
+    public SingleFlight<Long, Optional<Book>> bookByIdLookups(
+            @Value("${application.books.lookup.max-wait}") Duration maxWait) {
+        return new SingleFlight<>("book.by-id", maxWait, ServiceConfig::copy);
+    }
+
+    @Bean
+    public SingleFlight<String, Optional<Book>> bookByIsbnLookups(
+            @Value("${application.books.lookup.max-wait}") Duration maxWait) {
+        return new SingleFlight<>("book.by-isbn", maxWait, ServiceConfig::copy);
+    }
+
+    @Bean
+    public PrefixIndex bookAutocompleteIndex() {
+        return new PrefixIndex("book.autocomplete");
+    }
+
+    @Bean
+    public LongHashIndex bookIsbnIndex() {
+        return new LongHashIndex("book.isbn", 1024);
+    }
+
+    @Bean
+    public ScalableBloomFilter bookIsbnFilter(
+            @Value("${application.books.isbn-filter.initial-capacity}") int initialCapacity,
+            @Value("${application.books.isbn-filter.false-positive-rate}") double falsePositiveRate) {
+        return new ScalableBloomFilter("book.isbn", initialCapacity, falsePositiveRate);
+    }
+
+    @Bean
+    public CatalogSnapshot catalogSnapshot(
+            @Value("${application.books.snapshot.enabled}") boolean enabled,
+            @Value("${application.books.snapshot.path}") Path path) {
+        return new CatalogSnapshot(enabled, path);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public LoanEventBus loanEventBus(
+            List<LoanEventHandler> handlers,
+            @Value("${application.loans.events.capacity}") int capacity,
+            @Value("${application.loans.events.max-flush-time}") Duration maxFlushTime) {
+        return new LoanEventBus(capacity, handlers, maxFlushTime);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public LoanLedger loanLedger(
+            @Value("${application.loans.ledger.enabled}") boolean enabled,
+            @Value("${application.loans.ledger.directory}") Path directory,
+            @Value("${application.loans.ledger.segment-size}") DataSize segmentSize,
+            @Value("${application.loans.ledger.force-on-append}") boolean forceOnAppend) {
+        return new LoanLedger(enabled, directory, Math.toIntExact(segmentSize.toBytes()), forceOnAppend);
+    }
+
+    private static Optional<Book> copy(Optional<Book> book) {
+        return book.map(found -> found.toBuilder().build());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.libraryapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ajustes de inicialização usados pelo perfil {@code prod}.
+ *
+ * <p>Os beans declarados pelos pacotes de {@code application.startup.lazy-beans} (documentação da
+ * API) passam a ser criados no primeiro uso, fora do caminho até a aplicação ficar pronta. Beans
+ * que tratam eventos da inicialização em métodos que o tipo declarado não expõe não devem entrar
+ * na lista: criados sob demanda, eles perdem esses eventos.
+ *
+ * <p>Com {@code application.startup.training-run=true} a aplicação faz algumas requisições a si
+ * mesma depois de pronta e encerra, para que a JVM grave o arquivo de classes compartilhadas
+ * (AppCDS) com {@code -XX:ArchiveClassesAtExit}.
+ */
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    private static final Duration TRAINING_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        var packages = Binder.get(environment)
+                .bind("application.startup.lazy-beans", Bindable.listOf(String.class))
+                .orElse(List.of());
+
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+
+            var count = 0;
+            for (var name : beanFactory.getBeanDefinitionNames()) {
+                var definition = beanFactory.getBeanDefinition(name);
+                var source = sourceClassName(definition);
+                if (source != null && !definition.isLazyInit() && packages.stream().anyMatch(source::startsWith)) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+            log.info("{} NON-CRITICAL BEANS WILL BE CREATED ON FIRST USE", count);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.startup.training-run", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> trainingRun(
+            @Value("${application.startup.training-requests}") List<String> paths) {
+        return event -> {
+            var context = event.getApplicationContext();
+            var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var client = HttpClient.newBuilder().connectTimeout(TRAINING_REQUEST_TIMEOUT).build();
+
+            for (var path : paths) {
+                var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .timeout(TRAINING_REQUEST_TIMEOUT)
+                        .header("Accept", "application/json")
+                        .GET()
+                        .build();
+                try {
+                    var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    log.info("TRAINING REQUEST {} -> {}", path, response.statusCode());
+                } catch (IOException e) {
+                    log.warn("TRAINING REQUEST {} FAILED: {}", path, e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            log.info("TRAINING RUN FINISHED; SHUTTING DOWN");
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+
+    /**
+     * Classe que originou a definição: a da própria classe do bean ou, para métodos {@code @Bean},
+     * a da configuração que os declara.
+     */
+    private static String sourceClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition) {
+            var factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+
+        return definition.getBeanClassName();
+    }
+}
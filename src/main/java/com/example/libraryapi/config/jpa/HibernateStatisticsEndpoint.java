@@ -0,0 +1,82 @@
+package com.example.libraryapi.config.jpa;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        var result = new LinkedHashMap<String, Object>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStartTime());
+        result.put("connections", statistics.getConnectCount());
+        result.put("statements", statistics.getPrepareStatementCount());
+        result.put("transactions", statistics.getTransactionCount());
+        result.put("flushes", statistics.getFlushCount());
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("entityFetches", statistics.getEntityFetchCount());
+        result.put("collectionLoads", statistics.getCollectionLoadCount());
+        result.put("collectionFetches", statistics.getCollectionFetchCount());
+        result.put("queryExecutions", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTime", statistics.getQueryExecutionMaxTime());
+        result.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("secondLevelCacheHitRatio", ratio(
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        result.put("queryCacheHitRatio", ratio(
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        result.put("queries", queries());
+
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        statistics.clear();
+    }
+
+    private List<Map<String, Object>> queries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionCount()).reversed())
+                .map(entry -> {
+                    var queryStatistics = entry.getValue();
+                    var result = new LinkedHashMap<String, Object>();
+                    result.put("query", entry.getKey());
+                    result.put("executions", queryStatistics.getExecutionCount());
+                    result.put("rows", queryStatistics.getExecutionRowCount());
+                    result.put("avgTime", queryStatistics.getExecutionAvgTime());
+                    result.put("maxTime", queryStatistics.getExecutionMaxTime());
+                    result.put("cacheHitRatio", ratio(queryStatistics.getCacheHitCount(), queryStatistics.getCacheMissCount()));
+
+                    return (Map<String, Object>) result;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static double ratio(long hits, long misses) {
+        var total = hits + misses;
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.libraryapi.config.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final String APPLICATION_PACKAGE = "com.example.libraryapi";
+    private static final int MAX_CALLER_FRAMES = 8;
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> BATCH_METHODS = Set.of("executeBatch", "executeLargeBatch");
+
+    private final long thresholdNanos;
+
+    public SlowQueryDataSource(DataSource targetDataSource, Duration threshold) {
+        super(targetDataSource);
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxyConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxyConnection(super.getConnection(username, password));
+    }
+
+    private Connection proxyConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    var result = invoke(connection, method, args);
+
+                    if (result instanceof Statement) {
+                        var sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return proxyStatement((Statement) result, sql);
+                    }
+
+                    return result;
+                });
+    }
+
+    private Statement proxyStatement(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        var parameters = new TreeMap<Integer, Object>();
+        var batch = new ArrayList<List<Object>>();
+
+        return (Statement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    var name = method.getName();
+
+                    if (name.equals("setNull") && args != null && args[0] instanceof Integer) {
+                        parameters.put((Integer) args[0], null);
+                    } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameters.put((Integer) args[0], args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    }
+
+                    if (name.equals("addBatch")) {
+                        var result = invoke(statement, method, args);
+                        if (args == null) {
+                            batch.add(new ArrayList<>(parameters.values()));
+                            parameters.clear();
+                        }
+                        return result;
+                    } else if (name.equals("clearBatch")) {
+                        batch.clear();
+                    }
+
+                    if (!EXECUTE_METHODS.contains(name)) {
+                        return invoke(statement, method, args);
+                    }
+
+                    var start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        var elapsed = System.nanoTime() - start;
+                        if (elapsed >= thresholdNanos) {
+                            var sql = preparedSql != null ? preparedSql
+                                    : args != null && args.length > 0 ? String.valueOf(args[0]) : null;
+                            logSlowQuery(sql, BATCH_METHODS.contains(name) ? batch : parameters.values(), elapsed);
+                        }
+                        if (BATCH_METHODS.contains(name)) {
+                            batch.clear();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Em lotes, {@code parameters} tem uma lista de parâmetros por {@code addBatch}.
+     */
+    private void logSlowQuery(String sql, Object parameters, long elapsedNanos) {
+        var caller = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(frame -> !isInternalFrame(frame.getClassName()))
+                .limit(MAX_CALLER_FRAMES)
+                .map(StackWalker.StackFrame::toString)
+                .collect(Collectors.joining(" <- ")));
+
+        log.warn("SLOW QUERY ({} ms): {} | PARAMETERS: {} | CALLER: {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql, parameters, caller);
+    }
+
+    private static boolean isInternalFrame(String className) {
+        var internalClassName = SlowQueryDataSource.class.getName();
+
+        return className.equals(internalClassName) || className.startsWith(internalClassName + "$");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
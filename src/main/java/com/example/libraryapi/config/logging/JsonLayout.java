@@ -0,0 +1,81 @@
+package com.example.libraryapi.config.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+import java.time.Instant;
+
+public class JsonLayout extends LayoutBase<ILoggingEvent> {
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        var json = new StringBuilder(256);
+
+        json.append('{');
+        appendField(json, "timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        json.append(',');
+        appendField(json, "level", event.getLevel().toString());
+        json.append(',');
+        appendField(json, "thread", event.getThreadName());
+        json.append(',');
+        appendField(json, "logger", event.getLoggerName());
+        json.append(',');
+        appendField(json, "message", event.getFormattedMessage());
+
+        event.getMDCPropertyMap().forEach((key, value) -> {
+            json.append(',');
+            appendField(json, key, value);
+        });
+
+        if (event.getThrowableProxy() != null) {
+            json.append(',');
+            appendField(json, "exception", ThrowableProxyUtil.asString(event.getThrowableProxy()));
+        }
+
+        return json.append('}').append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        appendString(json, name);
+        json.append(':');
+        appendString(json, value);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
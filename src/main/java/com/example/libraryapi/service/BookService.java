@@ -1,9 +1,13 @@
 package com.example.libraryapi.service;
 
 import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.service.support.PrefixIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface BookService {
@@ -18,4 +22,10 @@ public interface BookService {
     Page<Book> find(Book book, Pageable pageable);
 
     Optional<Book> getBookByIsbn(String s);
+
+    Map<Long, Book> getByIds(Collection<Long> ids);
+
+    Map<String, Book> getByIsbns(Collection<String> isbns);
+
+    List<PrefixIndex.Suggestion> autocomplete(String query, int limit);
 }
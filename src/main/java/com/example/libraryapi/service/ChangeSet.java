@@ -0,0 +1,24 @@
+package com.example.libraryapi.service;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Estado atual das entidades alteradas em um intervalo da sequência de alterações. {@code next} é
+ * o valor de {@code since} da próxima chamada; {@code more} indica que ainda há alterações depois dele.
+ */
+@Value
+public class ChangeSet {
+
+    long since;
+    long next;
+    boolean more;
+    List<Book> books;
+    List<Loan> loans;
+    List<Long> deletedBooks;
+    List<Long> deletedLoans;
+
+}
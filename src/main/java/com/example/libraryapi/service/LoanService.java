@@ -3,9 +3,12 @@ package com.example.libraryapi.service;
 import com.example.libraryapi.api.dto.LoanFilterDTO;
 import com.example.libraryapi.api.model.entity.Book;
 import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.LoanSummary;
+import com.example.libraryapi.api.model.repository.LoanVersionSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +21,28 @@ public interface LoanService {
 
     Page<Loan> find(LoanFilterDTO filter, Pageable pageable);
 
+    Page<Loan> find(LoanFilterDTO filter, Pageable pageable, boolean includeHistory);
+
+    Page<LoanSummary> findSummaries(LoanFilterDTO filter, Pageable pageable);
+
     Page<Loan> getLoansByBook(Book book, Pageable pageable);
 
+    Page<Loan> getLoansByBook(Book book, Pageable pageable, boolean includeHistory);
+
+    Page<LoanSummary> getLoanSummariesByBook(Book book, Pageable pageable);
+
+    LoanVersionSummary getLoanVersionsByBook(Book book);
+
+    LoanVersionSummary getLoanVersions(LoanFilterDTO filter);
+
     List<Loan> getAllLateLoans();
 
+    /**
+     * Publica um evento de atraso para cada empréstimo vencido; o aviso por e-mail é enviado pelo
+     * handler de notificações. Retorna a quantidade de empréstimos vencidos.
+     */
+    int notifyLateLoans();
+
+    int archiveReturnedLoans(LocalDate loanDateBefore, int batchSize);
+
 }
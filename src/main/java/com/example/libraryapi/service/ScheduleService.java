@@ -1,34 +1,63 @@
 package com.example.libraryapi.service;
 
-import com.example.libraryapi.api.model.entity.Loan;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
+@Slf4j
 @Service
 public class ScheduleService {
 
     private static final String CRON_LATE_LOANS = "0 0 0 1/1 * ?";
 
-    @Value("${application.email.lateloan.message}")
-    private String message;
+    @Value("${application.loans.archive.after-days}")
+    private int archiveAfterDays;
+
+    @Value("${application.loans.archive.batch-size}")
+    private int archiveBatchSize;
+
+    @Value("${application.sync.compaction.after-days}")
+    private int compactAfterDays;
 
     @Autowired
     private LoanService loanService;
 
     @Autowired
-    private EmailService emailService;
+    private SyncService syncService;
 
     @Scheduled(cron = CRON_LATE_LOANS)
     public void sendEmailToLateLoans() {
-        var loans = loanService.getAllLateLoans();
+        var lateLoans = loanService.notifyLateLoans();
+
+        log.info("PUBLISHED {} LATE LOAN NOTIFICATIONS", lateLoans);
+    }
+
+    @Scheduled(cron = "${application.loans.archive.cron}")
+    public void archiveReturnedLoans() {
+        var loanDateBefore = LocalDate.now().minusDays(archiveAfterDays);
+        var archived = 0;
+
+        int batch;
+        do {
+            batch = loanService.archiveReturnedLoans(loanDateBefore, archiveBatchSize);
+            archived += batch;
+        } while (batch == archiveBatchSize);
+
+        log.info("ARCHIVED {} RETURNED LOANS OLDER THAN {}", archived, loanDateBefore);
+    }
 
-        var emails = loans.stream().map(Loan::getEmail).collect(Collectors.toList());
+    @Scheduled(cron = "${application.sync.compaction.cron}")
+    public void compactChangeLog() {
+        var before = Instant.now().minus(compactAfterDays, ChronoUnit.DAYS);
+        var removed = syncService.compact(before);
 
-        emailService.sendEmails(message, emails);
+        log.info("REMOVED {} SUPERSEDED CHANGE LOG ENTRIES OLDER THAN {}", removed, before);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.example.libraryapi.service;
+
+import com.example.libraryapi.api.model.entity.ChangeLog;
+
+import java.time.Instant;
+
+public interface SyncService {
+
+    /**
+     * Timeout, em segundos, das transações que gravam no change log. Um registro só aparece na
+     * sequência depois do commit, e o cliente passa por cima de buracos com mais de
+     * {@code settle-time}: toda transação que grava aqui precisa terminar antes disso, ou suas
+     * alterações são puladas para sempre. A inicialização falha se o timeout não for menor.
+     */
+    String WRITER_TIMEOUT = "${application.sync.writer-timeout-seconds}";
+
+    void record(ChangeLog.EntityType entityType, Long entityId, ChangeLog.Operation operation);
+
+    /**
+     * Alterações posteriores a {@code since}, no máximo {@code limit} registros da sequência. Várias
+     * alterações da mesma entidade no lote resultam em uma única entrada com o estado atual.
+     */
+    ChangeSet changesSince(long since, int limit);
+
+    int compact(Instant before);
+}
@@ -0,0 +1,43 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.api.model.entity.Loan;
+import lombok.Getter;
+
+/**
+ * Evento de domínio de um empréstimo. As instâncias são pré-alocadas pelo {@link LoanEventBus} e
+ * reutilizadas a cada volta do ring buffer: handlers não devem guardar a referência depois de
+ * {@link LoanEventHandler#onEvent} retornar.
+ */
+@Getter
+public final class LoanEvent {
+
+    public enum Type {
+        CREATED,
+        RETURNED,
+        OVERDUE
+    }
+
+    private long sequence;
+    private Type type;
+    private long loanId;
+    private long bookId;
+    private String isbn;
+    private String customer;
+    private String email;
+    private long timestamp;
+    private long publishedNanos;
+
+    void set(long sequence, Type type, Loan loan) {
+        var book = loan.getBook();
+
+        this.sequence = sequence;
+        this.type = type;
+        this.loanId = loan.getId() == null ? 0 : loan.getId();
+        this.bookId = book == null || book.getId() == null ? 0 : book.getId();
+        this.isbn = book == null ? null : book.getIsbn();
+        this.customer = loan.getCustomer();
+        this.email = loan.getEmail();
+        this.timestamp = System.currentTimeMillis();
+        this.publishedNanos = System.nanoTime();
+    }
+}
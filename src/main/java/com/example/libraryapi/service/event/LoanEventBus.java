@@ -0,0 +1,212 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.api.model.entity.Loan;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Barramento de eventos de empréstimo sobre um ring buffer pré-alocado, sem locks, para vários
+ * produtores e um consumidor por handler. Publicar apenas reivindica uma sequência e preenche o
+ * slot correspondente, sem alocar; os handlers leem os slots publicados em lotes, cada um na sua
+ * thread, e o produtor só espera quando o handler mais lento está uma volta inteira atrás.
+ */
+@Slf4j
+public class LoanEventBus implements MeterBinder {
+
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long HANDLER_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoanEvent[] events;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final LongAdder producerWaits = new LongAdder();
+    private final Duration maxFlushTime;
+
+    private volatile boolean running;
+
+    public LoanEventBus(int capacity, List<LoanEventHandler> handlers, Duration maxFlushTime) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacidade deve ser maior que 1.");
+        }
+
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.events = new LoanEvent[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.maxFlushTime = maxFlushTime;
+
+        for (int i = 0; i < size; i++) {
+            events[i] = new LoanEvent();
+            published.set(i, -1);
+        }
+        handlers.forEach(handler -> consumers.add(new Consumer(handler)));
+    }
+
+    public void start() {
+        running = true;
+        consumers.forEach(consumer -> consumer.thread.start());
+    }
+
+    public void stop() {
+        running = false;
+
+        for (var consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join(maxFlushTime.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (consumer.thread.isAlive()) {
+                log.warn("LOAN EVENT HANDLER {} DID NOT FINISH; {} EVENTS MAY BE LOST",
+                        consumer.handler.getName(), cursor.get() - consumer.sequence);
+            }
+        }
+    }
+
+    public void publish(LoanEvent.Type type, Loan loan) {
+        var sequence = cursor.incrementAndGet();
+
+        var wrapPoint = sequence - events.length;
+        if (wrapPoint > minimumConsumerSequence()) {
+            producerWaits.increment();
+            while (wrapPoint > minimumConsumerSequence()) {
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            }
+        }
+
+        var index = (int) sequence & mask;
+        events[index].set(sequence, type, loan);
+        published.set(index, sequence);
+    }
+
+    /**
+     * Sequência do último evento publicado, ou {@code -1} se nenhum foi publicado.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("loan.events.published", cursor, value -> value.get() + 1)
+                .description("Eventos de empréstimo publicados")
+                .register(registry);
+        FunctionCounter.builder("loan.events.producer.waits", producerWaits, LongAdder::sum)
+                .description("Publicações que esperaram o handler mais lento liberar espaço")
+                .register(registry);
+
+        for (var consumer : consumers) {
+            var handler = consumer.handler.getName();
+
+            Gauge.builder("loan.events.lag", consumer, c -> cursor.get() - c.sequence)
+                    .tag("handler", handler)
+                    .description("Eventos publicados ainda não processados pelo handler")
+                    .register(registry);
+            Gauge.builder("loan.events.delay", consumer, c -> c.lastDelayNanos / 1e6)
+                    .tag("handler", handler)
+                    .baseUnit("milliseconds")
+                    .description("Tempo entre a publicação e o processamento do último evento")
+                    .register(registry);
+            FunctionCounter.builder("loan.events.handled", consumer, c -> c.handled.sum())
+                    .tag("handler", handler)
+                    .register(registry);
+            FunctionCounter.builder("loan.events.batches", consumer, c -> c.batches.sum())
+                    .tag("handler", handler)
+                    .register(registry);
+            FunctionCounter.builder("loan.events.errors", consumer, c -> c.errors.sum())
+                    .tag("handler", handler)
+                    .register(registry);
+        }
+    }
+
+    private long minimumConsumerSequence() {
+        var minimum = Long.MAX_VALUE;
+        for (var consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence);
+        }
+
+        return minimum == Long.MAX_VALUE ? cursor.get() : minimum;
+    }
+
+    private final class Consumer implements Runnable {
+
+        private final LoanEventHandler handler;
+        private final Thread thread;
+        private final LongAdder handled = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private volatile long sequence = -1;
+        private volatile long lastDelayNanos;
+
+        private Consumer(LoanEventHandler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, "loan-events-" + handler.getName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                var available = highestPublished(sequence + 1);
+                if (available <= sequence) {
+                    if (!running) {
+                        return;
+                    }
+                    LockSupport.parkNanos(HANDLER_IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                for (var next = sequence + 1; next <= available; next++) {
+                    var event = events[(int) next & mask];
+                    try {
+                        handler.onEvent(event, next == available);
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                        log.error("LOAN EVENT HANDLER {} FAILED ON EVENT {}", handler.getName(), next, e);
+                    }
+                    lastDelayNanos = System.nanoTime() - event.getPublishedNanos();
+                }
+
+                handled.add(available - sequence);
+                batches.increment();
+                sequence = available;
+            }
+        }
+
+        /**
+         * Maior sequência contígua já publicada a partir de {@code from}; produtores podem terminar
+         * fora de ordem, então o lote para no primeiro slot ainda não preenchido.
+         */
+        private long highestPublished(long from) {
+            var limit = cursor.get();
+            for (var next = from; next <= limit; next++) {
+                if (published.get((int) next & mask) != next) {
+                    return next - 1;
+                }
+            }
+
+            return limit;
+        }
+    }
+}
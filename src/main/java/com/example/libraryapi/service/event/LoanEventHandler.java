@@ -0,0 +1,14 @@
+package com.example.libraryapi.service.event;
+
+/**
+ * Consumidor de eventos de empréstimo. Cada handler roda na sua própria thread e recebe os eventos
+ * em lotes: {@code endOfBatch} indica o último evento disponível no momento, ponto natural para
+ * descarregar o que foi acumulado (por exemplo, enviar um único e-mail para vários destinatários).
+ */
+public interface LoanEventHandler {
+
+    String getName();
+
+    void onEvent(LoanEvent event, boolean endOfBatch);
+
+}
@@ -0,0 +1,313 @@
+package com.example.libraryapi.service.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import com.example.libraryapi.service.support.Isbn;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feed de empréstimos criados e devolvidos, com a disponibilidade resultante do livro, para quem
+ * hoje faz polling das listagens. Guarda as últimas entradas em um buffer circular para que um
+ * assinante reconectado retome a partir do último id recebido.
+ *
+ * <p>O handler só grava no buffer de replay e enfileira a entrada em cada assinatura; a escrita nos
+ * sockets acontece em um pool próprio de threads, fora da thread do barramento e do lock da
+ * inscrição. A fila de cada assinatura é limitada: quando um assinante lento a enche, as entradas
+ * pendentes são descartadas e ele recebe um {@link Subscriber#reset()}. Um socket travado prende
+ * apenas uma thread do pool até o timeout de escrita do servidor encerrar a conexão.
+ *
+ * <p>O heartbeat é agendado nesse mesmo pool, e não com {@code @Scheduled}: o agendador do Spring é
+ * compartilhado com o arquivamento e os snapshots, e um job longo ali atrasaria os heartbeats até os
+ * proxies derrubarem as conexões ociosas.
+ *
+ * <p>Os ids dos eventos levam a época da inicialização ({@code época-sequência}); uma retomada com id
+ * de outra época, ou à frente da última entrada, também recebe um reset.
+ */
+@Slf4j
+@Component
+public class LoanFeed implements LoanEventHandler, MeterBinder {
+
+    /**
+     * Destino das entradas de uma assinatura; uma {@link IOException} encerra a assinatura.
+     */
+    public interface Subscriber {
+
+        void send(LoanFeedEntry entry) throws IOException;
+
+        /**
+         * O assinante perdeu entradas (id fora do buffer, de outra inicialização ou fila cheia) e
+         * deve recarregar o estado.
+         */
+        void reset() throws IOException;
+
+        void heartbeat() throws IOException;
+
+    }
+
+    private final LoanFeedEntry[] replay;
+    private final int maxSubscribers;
+    private final int queueSize;
+    private final Executor dispatcher;
+    private final String epoch;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    private long appended;
+    private long lastId = -1;
+
+    @Autowired
+    public LoanFeed(@Value("${application.loans.feed.replay-size}") int replaySize,
+                    @Value("${application.loans.feed.max-subscribers}") int maxSubscribers,
+                    @Value("${application.loans.feed.subscriber-queue-size}") int queueSize,
+                    @Value("${application.loans.feed.dispatcher-threads}") int dispatcherThreads,
+                    @Value("${application.loans.feed.heartbeat-interval}") Duration heartbeatInterval) {
+        this(replaySize, maxSubscribers, queueSize, dispatcherPool(dispatcherThreads),
+                Long.toString(System.currentTimeMillis(), 36));
+
+        var interval = heartbeatInterval.toMillis();
+        ((ScheduledExecutorService) dispatcher)
+                .scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    LoanFeed(int replaySize, int maxSubscribers, int queueSize, Executor dispatcher, String epoch) {
+        this.replay = new LoanFeedEntry[replaySize];
+        this.maxSubscribers = maxSubscribers;
+        this.queueSize = queueSize;
+        this.dispatcher = dispatcher;
+        this.epoch = epoch;
+    }
+
+    @Override
+    public String getName() {
+        return "feed";
+    }
+
+    @Override
+    public synchronized void onEvent(LoanEvent event, boolean endOfBatch) {
+        if (event.getType() == LoanEvent.Type.OVERDUE) {
+            return;
+        }
+
+        var entry = LoanFeedEntry.of(event, epoch);
+        replay[(int) (appended++ % replay.length)] = entry;
+        lastId = entry.getId();
+
+        for (var subscription : subscriptions) {
+            subscription.enqueue(entry);
+        }
+    }
+
+    /**
+     * Inscreve um assinante, opcionalmente filtrando por ISBN e cliente. Com {@code lastEventId}, as
+     * entradas posteriores ainda no buffer são reenviadas antes das novas; se o buffer já não cobre o
+     * id, o assinante recebe um {@link Subscriber#reset()}. Retorna vazio quando o limite de
+     * assinantes foi atingido.
+     */
+    public synchronized Optional<Subscription> subscribe(String isbn, String customer, String lastEventId,
+                                                         Subscriber subscriber) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+
+        var subscription = new Subscription(isbn == null ? null : Isbn.canonical(isbn), customer, subscriber);
+        if (lastEventId != null) {
+            resume(subscription, lastEventId);
+        }
+        subscriptions.add(subscription);
+        subscription.schedule();
+
+        return Optional.of(subscription);
+    }
+
+    public void heartbeat() {
+        for (var subscription : subscriptions) {
+            subscription.heartbeatPending = true;
+            subscription.schedule();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("loans.feed.subscribers", subscriptions, List::size)
+                .description("Assinantes conectados ao feed de empréstimos")
+                .register(registry);
+        FunctionCounter.builder("loans.feed.delivered", delivered, LongAdder::sum)
+                .description("Entradas entregues aos assinantes do feed")
+                .register(registry);
+        FunctionCounter.builder("loans.feed.resets", resets, LongAdder::sum)
+                .description("Assinantes mandados recarregar o estado (retomada impossível ou fila cheia)")
+                .register(registry);
+    }
+
+    private void resume(Subscription subscription, String lastEventId) {
+        var position = sequenceOf(lastEventId);
+        var oldest = Math.max(0, appended - replay.length);
+        var first = replay[(int) (oldest % replay.length)];
+
+        if (position < 0 || position > lastId || (first != null && oldest > 0 && position < first.getId() - 1)) {
+            subscription.requestReset();
+            return;
+        }
+
+        for (var entry : entriesAfter(position, oldest)) {
+            subscription.enqueue(entry);
+        }
+    }
+
+    /**
+     * Sequência de um id emitido nesta inicialização; -1 para ids de outra época ou malformados.
+     */
+    private long sequenceOf(String eventId) {
+        var separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private List<LoanFeedEntry> entriesAfter(long lastEventId, long oldest) {
+        var entries = new ArrayList<LoanFeedEntry>();
+        for (var position = oldest; position < appended; position++) {
+            var entry = replay[(int) (position % replay.length)];
+            if (entry.getId() > lastEventId) {
+                entries.add(entry);
+            }
+        }
+
+        return entries;
+    }
+
+    private static ScheduledExecutorService dispatcherPool(int threads) {
+        var threadFactory = new CustomizableThreadFactory("loan-feed-");
+        threadFactory.setDaemon(true);
+        return Executors.newScheduledThreadPool(threads, threadFactory);
+    }
+
+    public final class Subscription {
+
+        private final String isbn;
+        private final String customer;
+        private final Subscriber subscriber;
+        private final BlockingQueue<LoanFeedEntry> queue = new LinkedBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+        private volatile boolean resetPending;
+        private volatile boolean heartbeatPending;
+
+        private Subscription(String isbn, String customer, Subscriber subscriber) {
+            this.isbn = isbn;
+            this.customer = customer;
+            this.subscriber = subscriber;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            queue.clear();
+            subscriptions.remove(this);
+        }
+
+        private void enqueue(LoanFeedEntry entry) {
+            if (cancelled || !entry.matches(isbn, customer)) {
+                return;
+            }
+
+            if (!queue.offer(entry)) {
+                log.debug("LOAN FEED SUBSCRIBER TOO SLOW; DROPPING {} PENDING ENTRIES", queue.size());
+                requestReset();
+            }
+            schedule();
+        }
+
+        private void requestReset() {
+            queue.clear();
+            resetPending = true;
+            resets.increment();
+        }
+
+        private void schedule() {
+            if (cancelled || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!cancelled) {
+                    if (resetPending) {
+                        resetPending = false;
+                        subscriber.reset();
+                        continue;
+                    }
+
+                    var entry = queue.poll();
+                    if (entry != null) {
+                        subscriber.send(entry);
+                        delivered.increment();
+                    } else if (heartbeatPending) {
+                        heartbeatPending = false;
+                        subscriber.heartbeat();
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("LOAN FEED SUBSCRIBER DISCONNECTED: {}", e.getMessage());
+                cancel();
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (resetPending || heartbeatPending || !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
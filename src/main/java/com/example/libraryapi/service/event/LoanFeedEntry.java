@@ -0,0 +1,47 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.service.support.Isbn;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+
+/**
+ * Entrada do feed de empréstimos: cópia imutável de um {@link LoanEvent}, já que os slots do ring
+ * buffer são reutilizados. {@code available} é a nova disponibilidade do livro após o evento e
+ * {@code eventId} o id enviado ao cliente, prefixado pela época da inicialização.
+ */
+@Value
+public class LoanFeedEntry {
+
+    @JsonIgnore
+    long id;
+    @JsonIgnore
+    String eventId;
+    String type;
+    long loanId;
+    long bookId;
+    String isbn;
+    String customer;
+    boolean available;
+    long timestamp;
+
+    @JsonIgnore
+    String isbnKey;
+
+    static LoanFeedEntry of(LoanEvent event, String epoch) {
+        return new LoanFeedEntry(
+                event.getSequence(),
+                epoch + "-" + event.getSequence(),
+                event.getType().name().toLowerCase(),
+                event.getLoanId(),
+                event.getBookId(),
+                event.getIsbn(),
+                event.getCustomer(),
+                event.getType() == LoanEvent.Type.RETURNED,
+                event.getTimestamp(),
+                event.getIsbn() == null ? null : Isbn.canonical(event.getIsbn()));
+    }
+
+    boolean matches(String isbn, String customer) {
+        return (isbn == null || isbn.equals(isbnKey)) && (customer == null || customer.equals(this.customer));
+    }
+}
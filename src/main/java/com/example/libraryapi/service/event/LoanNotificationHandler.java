@@ -0,0 +1,46 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.service.EmailService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envia o aviso de atraso para os clientes dos empréstimos vencidos, juntando os destinatários de
+ * um lote de eventos em um único e-mail.
+ */
+@Component
+public class LoanNotificationHandler implements LoanEventHandler {
+
+    private final EmailService emailService;
+    private final String lateLoanMessage;
+    private final List<String> recipients = new ArrayList<>();
+
+    public LoanNotificationHandler(EmailService emailService,
+                                   @Value("${application.email.lateloan.message}") String lateLoanMessage) {
+        this.emailService = emailService;
+        this.lateLoanMessage = lateLoanMessage;
+    }
+
+    @Override
+    public String getName() {
+        return "notification";
+    }
+
+    @Override
+    public void onEvent(LoanEvent event, boolean endOfBatch) {
+        if (event.getType() == LoanEvent.Type.OVERDUE && event.getEmail() != null) {
+            recipients.add(event.getEmail());
+        }
+
+        if (endOfBatch && !recipients.isEmpty()) {
+            try {
+                emailService.sendEmails(lateLoanMessage, List.copyOf(recipients));
+            } finally {
+                recipients.clear();
+            }
+        }
+    }
+}
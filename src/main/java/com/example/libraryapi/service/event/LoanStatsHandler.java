@@ -0,0 +1,47 @@
+package com.example.libraryapi.service.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contabiliza os eventos de empréstimo por tipo, fora da thread da requisição.
+ */
+@Component
+public class LoanStatsHandler implements LoanEventHandler, MeterBinder {
+
+    private final Map<LoanEvent.Type, LongAdder> counts = new EnumMap<>(LoanEvent.Type.class);
+
+    public LoanStatsHandler() {
+        for (var type : LoanEvent.Type.values()) {
+            counts.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "stats";
+    }
+
+    @Override
+    public void onEvent(LoanEvent event, boolean endOfBatch) {
+        counts.get(event.getType()).increment();
+    }
+
+    public long getCount(LoanEvent.Type type) {
+        return counts.get(type).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counts.forEach((type, count) -> FunctionCounter.builder("loans.activity", count, LongAdder::sum)
+                .tag("type", type.name().toLowerCase())
+                .description("Empréstimos criados, devolvidos e vencidos")
+                .register(registry));
+    }
+}
@@ -1,57 +1,99 @@
 package com.example.libraryapi.service.impl;
 
 import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
 import com.example.libraryapi.api.model.repository.BookRepository;
 import com.example.libraryapi.exception.BusinessException;
 import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.SyncService;
+import com.example.libraryapi.service.index.BookIndexes;
+import com.example.libraryapi.service.support.Isbn;
+import com.example.libraryapi.service.support.LongHashIndex;
+import com.example.libraryapi.service.support.PrefixIndex;
+import com.example.libraryapi.service.support.SingleFlight;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @AllArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    /**
+     * Quantidade máxima de chaves por cláusula IN nas buscas em lote.
+     */
+    static final int MAX_IN_CLAUSE = 500;
+
     @Autowired
     private final BookRepository repository;
 
+    private final SingleFlight<Long, Optional<Book>> bookByIdLookups;
+
+    private final SingleFlight<String, Optional<Book>> bookByIsbnLookups;
+
+    private final SyncService syncService;
+
+    private final BookIndexes indexes;
+
     @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
     public Book save(Book book) {
-        if (repository.existsByIsbn(book.getIsbn())) {
+        var isbnKey = Isbn.parse(book.getIsbn()).orElseThrow(() -> new BusinessException("ISBN inválido"));
+        if (indexes.isDuplicated(isbnKey)) {
             throw new BusinessException("ISBN já cadastrado");
         }
 
-        return repository.save(book);
+        book.setIsbn(Isbn.format(isbnKey));
+        book.setIsbnKey(isbnKey);
+
+        try {
+            return indexes.indexAfterCommit(recordUpsert(repository.save(book)));
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException("ISBN já cadastrado");
+        }
     }
 
     @Override
     public Optional<Book> getById(long id) {
-        return repository.findById(id);
+        return bookByIdLookups.execute(id, () -> repository.findById(id));
     }
 
     @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
     public void delete(Book book) {
         if (Objects.isNull(book) || Objects.isNull(book.getId())) {
             throw new IllegalArgumentException("Id do livro não pode ser nulo.");
         }
 
         repository.delete(book);
+        syncService.record(ChangeLog.EntityType.BOOK, book.getId(), ChangeLog.Operation.DELETE);
+        indexes.removeAfterCommit(book);
     }
 
     @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
     public Book update(Book book) {
         if (Objects.isNull(book) || Objects.isNull(book.getId())) {
             throw new IllegalArgumentException("Id do livro não pode ser nulo.");
         }
 
-        return repository.save(book);
+        return indexes.indexAfterCommit(recordUpsert(repository.save(book)));
     }
 
     @Override
@@ -69,7 +111,75 @@ public class BookServiceImpl implements BookService {
 
     @Override
     public Optional<Book> getBookByIsbn(String isbn) {
-        return repository.findByIsbn(isbn);
+        var parsed = Isbn.parse(isbn);
+        if (parsed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var isbnKey = parsed.getAsLong();
+        var id = indexes.findId(isbnKey);
+        if (id != LongHashIndex.MISSING) {
+            var book = getById(id);
+            if (book.isPresent()) {
+                return book;
+            }
+            indexes.removeIsbn(isbnKey);
+        }
+
+        var book = bookByIsbnLookups.execute(Isbn.format(isbnKey), () -> repository.findByIsbnKey(isbnKey));
+        book.ifPresent(found -> indexes.putIsbn(isbnKey, found.getId()));
+
+        return book;
+    }
+
+    @Override
+    public Map<Long, Book> getByIds(Collection<Long> ids) {
+        return findInChunks(ids, repository::findByIdIn, Book::getId);
+    }
+
+    @Override
+    public Map<String, Book> getByIsbns(Collection<String> isbns) {
+        var keys = new HashMap<String, Long>();
+        isbns.forEach(isbn -> Isbn.parse(isbn).ifPresent(isbnKey -> keys.put(isbn, isbnKey)));
+
+        var books = findInChunks(keys.values(), repository::findByIsbnKeyIn, Book::getIsbnKey);
+
+        var result = new HashMap<String, Book>(keys.size() * 2);
+        keys.forEach((isbn, isbnKey) -> {
+            var book = books.get(isbnKey);
+            if (book != null) {
+                result.put(isbn, book);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public List<PrefixIndex.Suggestion> autocomplete(String query, int limit) {
+        return indexes.suggest(query, limit);
+    }
+
+    private Book recordUpsert(Book book) {
+        if (book != null) {
+            syncService.record(ChangeLog.EntityType.BOOK, book.getId(), ChangeLog.Operation.UPSERT);
+        }
+
+        return book;
+    }
+
+    private <K> Map<K, Book> findInChunks(Collection<K> keys,
+                                          Function<List<K>, List<Book>> query,
+                                          Function<Book, K> keyOf) {
+        var distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        var books = new HashMap<K, Book>(distinct.size() * 2);
+
+        for (int from = 0; from < distinct.size(); from += MAX_IN_CLAUSE) {
+            var chunk = distinct.subList(from, Math.min(from + MAX_IN_CLAUSE, distinct.size()));
+            query.apply(chunk).forEach(book -> books.put(keyOf.apply(book), book));
+        }
+
+        return books;
     }
 
 }
@@ -1,5 +1,6 @@
 package com.example.libraryapi.service.impl;
 
+import com.example.libraryapi.config.PlatformExecutor;
 import com.example.libraryapi.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +19,9 @@ public class EmailServiceImpl implements EmailService {
     @Autowired
     private JavaMailSender javaMailSender;
 
+    @Autowired
+    private PlatformExecutor mailExecutor;
+
     @Override
     public void sendEmails(String message, List<String> emailList) {
         var emails = emailList.toArray(new String[emailList.size()]);
@@ -28,7 +32,7 @@ public class EmailServiceImpl implements EmailService {
         mailMessage.setText(message);
         mailMessage.setTo(emails);
 
-        javaMailSender.send(mailMessage);
+        mailExecutor.run(() -> javaMailSender.send(mailMessage));
     }
 
 }
@@ -2,20 +2,42 @@ package com.example.libraryapi.service.impl;
 
 import com.example.libraryapi.api.dto.LoanFilterDTO;
 import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
 import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.entity.LoanHistory;
+import com.example.libraryapi.api.model.repository.LoanHistoryRepository;
 import com.example.libraryapi.api.model.repository.LoanRepository;
+import com.example.libraryapi.api.model.repository.LoanSummary;
+import com.example.libraryapi.api.model.repository.LoanVersionSummary;
 import com.example.libraryapi.exception.BusinessException;
 import com.example.libraryapi.service.LoanService;
+import com.example.libraryapi.service.SyncService;
+import com.example.libraryapi.service.event.LoanEvent;
+import com.example.libraryapi.service.event.LoanEventBus;
+import com.example.libraryapi.service.ledger.LoanLedger;
+import com.example.libraryapi.service.support.AfterCommit;
+import com.example.libraryapi.service.support.Isbn;
+import com.example.libraryapi.service.support.OffsetPageable;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @AllArgsConstructor
 public class LoanServiceImpl implements LoanService {
@@ -23,13 +45,27 @@ public class LoanServiceImpl implements LoanService {
     @Autowired
     private final LoanRepository repository;
 
+    private final LoanHistoryRepository historyRepository;
+
+    private final LoanEventBus eventBus;
+
+    private final SyncService syncService;
+
+    private final LoanLedger ledger;
+
     @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
     public Loan save(Loan loan) {
-        if (repository.existsByBookAndNotReturned(loan.getBook())) {
+        if (isBookLent(loan.getBook())) {
             throw new BusinessException("Livro já emprestado.");
         }
 
-        return repository.save(loan);
+        var saved = repository.save(loan);
+        ledger.append(LoanLedger.Type.CREATED, saved);
+        syncService.record(ChangeLog.EntityType.LOAN, saved.getId(), ChangeLog.Operation.UPSERT);
+        AfterCommit.run(() -> eventBus.publish(LoanEvent.Type.CREATED, saved));
+
+        return saved;
     }
 
     @Override
@@ -38,13 +74,41 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
     public Loan update(Loan loan) {
-        return repository.save(loan);
+        var saved = repository.save(loan);
+        syncService.record(ChangeLog.EntityType.LOAN, saved.getId(), ChangeLog.Operation.UPSERT);
+        if (Boolean.TRUE.equals(saved.getReturned())) {
+            ledger.append(LoanLedger.Type.RETURNED, saved);
+            AfterCommit.run(() -> eventBus.publish(LoanEvent.Type.RETURNED, saved));
+        } else if (ledger.isEnabled() && !ledger.isLoanActive(saved.getBook().getId(), saved.getId())) {
+            ledger.append(LoanLedger.Type.CREATED, saved);
+        }
+
+        return saved;
     }
 
     @Override
     public Page<Loan> find(LoanFilterDTO filter, Pageable pageable) {
-        return repository.findByBookIsbnOrCustomer(filter.getIsbn(), filter.getCustomer(), pageable);
+        return repository.findByBookIsbnOrCustomer(Isbn.canonical(filter.getIsbn()), filter.getCustomer(), pageable);
+    }
+
+    @Override
+    public Page<Loan> find(LoanFilterDTO filter, Pageable pageable, boolean includeHistory) {
+        if (!includeHistory) {
+            return find(filter, pageable);
+        }
+
+        var isbn = Isbn.canonical(filter.getIsbn());
+        return concat(pageable,
+                page -> repository.findByBookIsbnOrCustomer(isbn, filter.getCustomer(), page),
+                page -> historyRepository.findByBookIsbnOrCustomer(isbn, filter.getCustomer(), page),
+                () -> historyRepository.countByBookIsbnOrCustomer(isbn, filter.getCustomer()));
+    }
+
+    @Override
+    public Page<LoanSummary> findSummaries(LoanFilterDTO filter, Pageable pageable) {
+        return repository.findSummariesByBookIsbnOrCustomer(Isbn.canonical(filter.getIsbn()), filter.getCustomer(), pageable);
     }
 
     @Override
@@ -52,6 +116,33 @@ public class LoanServiceImpl implements LoanService {
         return repository.findByBook(book, pageable);
     }
 
+    @Override
+    public Page<Loan> getLoansByBook(Book book, Pageable pageable, boolean includeHistory) {
+        if (!includeHistory) {
+            return getLoansByBook(book, pageable);
+        }
+
+        return concat(pageable,
+                page -> repository.findByBook(book, page),
+                page -> historyRepository.findByBook(book, page),
+                () -> historyRepository.countByBook(book));
+    }
+
+    @Override
+    public Page<LoanSummary> getLoanSummariesByBook(Book book, Pageable pageable) {
+        return repository.findSummariesByBook(book, pageable);
+    }
+
+    @Override
+    public LoanVersionSummary getLoanVersionsByBook(Book book) {
+        return repository.summarizeVersionsByBook(book);
+    }
+
+    @Override
+    public LoanVersionSummary getLoanVersions(LoanFilterDTO filter) {
+        return repository.summarizeVersionsByBookIsbnOrCustomer(Isbn.canonical(filter.getIsbn()), filter.getCustomer());
+    }
+
     @Override
     public List<Loan> getAllLateLoans() {
         final int loanDays = 4;
@@ -59,4 +150,86 @@ public class LoanServiceImpl implements LoanService {
 
         return repository.findByLoanDateLessThanAndNotReturned(threeDaysAgo);
     }
+
+    @Override
+    public int notifyLateLoans() {
+        var loans = getAllLateLoans();
+        loans.forEach(loan -> eventBus.publish(LoanEvent.Type.OVERDUE, loan));
+
+        return loans.size();
+    }
+
+    @Override
+    @Transactional(timeoutString = SyncService.WRITER_TIMEOUT)
+    public int archiveReturnedLoans(LocalDate loanDateBefore, int batchSize) {
+        var loans = repository.findReturnedBefore(loanDateBefore, PageRequest.of(0, batchSize));
+        if (loans.isEmpty()) {
+            return 0;
+        }
+
+        historyRepository.saveAll(loans.stream().map(LoanHistory::of).collect(Collectors.toList()));
+        repository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).collect(Collectors.toList()));
+        loans.forEach(loan -> syncService.record(ChangeLog.EntityType.LOAN, loan.getId(), ChangeLog.Operation.DELETE));
+
+        return loans.size();
+    }
+
+    /**
+     * Com o ledger habilitado, o índice de empréstimos ativos reconstruído a partir dele dispensa a
+     * consulta de existência para os livros livres. Antes de o servidor web aceitar requisições, ele
+     * é reconciliado com o banco: todo empréstimo ativo que o ledger não conhece é registrado.
+     */
+    @PostConstruct
+    public void reconcileLedger() {
+        if (!ledger.isEnabled()) {
+            return;
+        }
+
+        var missing = repository.findNotReturned().stream()
+                .filter(loan -> !ledger.isLoanActive(loan.getBook().getId(), loan.getId()))
+                .collect(Collectors.toList());
+        ledger.seed(missing);
+
+        log.info("LOAN LEDGER RECONCILED WITH {} ACTIVE LOANS MISSING FROM IT", missing.size());
+    }
+
+    private boolean isBookLent(Book book) {
+        if (ledger.isEnabled()) {
+            return book.getId() != null && ledger.isBookActive(book.getId())
+                    && repository.existsByBookAndNotReturned(book);
+        }
+
+        return repository.existsByBookAndNotReturned(book);
+    }
+
+    /**
+     * Pagina os empréstimos ativos seguidos pelos arquivados, como se fossem uma única lista: a
+     * página que cruza a fronteira é completada com o início do histórico.
+     */
+    private Page<Loan> concat(Pageable pageable,
+                              Function<Pageable, Page<Loan>> hot,
+                              Function<Pageable, Page<LoanHistory>> cold,
+                              LongSupplier coldCount) {
+        if (pageable.isUnpaged()) {
+            var content = new ArrayList<>(hot.apply(pageable).getContent());
+            cold.apply(pageable).forEach(history -> content.add(history.toLoan()));
+            return new PageImpl<>(content);
+        }
+
+        var hotPage = hot.apply(pageable);
+        var content = new ArrayList<>(hotPage.getContent());
+        var remaining = pageable.getPageSize() - content.size();
+
+        long coldTotal;
+        if (remaining > 0) {
+            var coldOffset = Math.max(0, pageable.getOffset() - hotPage.getTotalElements());
+            var coldPage = cold.apply(new OffsetPageable(coldOffset, remaining, pageable.getSort()));
+            coldPage.forEach(history -> content.add(history.toLoan()));
+            coldTotal = coldPage.getTotalElements();
+        } else {
+            coldTotal = coldCount.getAsLong();
+        }
+
+        return new PageImpl<>(content, pageable, hotPage.getTotalElements() + coldTotal);
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.libraryapi.service.impl;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.BookRepository;
+import com.example.libraryapi.api.model.repository.ChangeLogRepository;
+import com.example.libraryapi.api.model.repository.LoanRepository;
+import com.example.libraryapi.service.ChangeSet;
+import com.example.libraryapi.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SyncServiceImpl implements SyncService {
+
+    private final ChangeLogRepository repository;
+
+    private final BookRepository bookRepository;
+
+    private final LoanRepository loanRepository;
+
+    @Value("${application.sync.settle-time}")
+    private Duration settleTime;
+
+    @Value(WRITER_TIMEOUT)
+    private int writerTimeoutSeconds;
+
+    @PostConstruct
+    public void checkWriterTimeout() {
+        if (Duration.ofSeconds(writerTimeoutSeconds).compareTo(settleTime) >= 0) {
+            throw new IllegalStateException("O timeout das transações que gravam no change log ("
+                    + writerTimeoutSeconds + "s) deve ser menor que o settle-time (" + settleTime + ").");
+        }
+    }
+
+    @Override
+    public void record(ChangeLog.EntityType entityType, Long entityId, ChangeLog.Operation operation) {
+        repository.save(ChangeLog.of(entityType, entityId, operation));
+    }
+
+    /**
+     * Os ids vêm de uma coluna identity e são alocados antes do commit: um buraco recente na
+     * sequência pode ser uma transação ainda em andamento, que ficaria para trás se o cliente
+     * avançasse além dela. O lote termina no primeiro buraco mais novo que {@code settle-time};
+     * buracos antigos são rollbacks ou registros compactados. Isso só vale porque nenhuma transação
+     * que grava no change log dura mais que {@link #WRITER_TIMEOUT}, menor que {@code settle-time}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeSet changesSince(long since, int limit) {
+        var changes = repository.findSince(since, PageRequest.of(0, limit + 1));
+        var settledBefore = Instant.now().minus(settleTime);
+
+        var accepted = new ArrayList<ChangeLog>(Math.min(changes.size(), limit));
+        var expected = since + 1;
+        for (var change : changes) {
+            if (accepted.size() == limit
+                    || change.getId() != expected && change.getChangedAt().isAfter(settledBefore)) {
+                break;
+            }
+            accepted.add(change);
+            expected = change.getId() + 1;
+        }
+
+        var next = accepted.isEmpty() ? since : accepted.get(accepted.size() - 1).getId();
+        var more = accepted.size() < changes.size();
+
+        var bookIds = idsOf(accepted, ChangeLog.EntityType.BOOK, ChangeLog.Operation.UPSERT);
+        var deletedBooks = idsOf(accepted, ChangeLog.EntityType.BOOK, ChangeLog.Operation.DELETE);
+        var loanIds = idsOf(accepted, ChangeLog.EntityType.LOAN, ChangeLog.Operation.UPSERT);
+        var deletedLoans = idsOf(accepted, ChangeLog.EntityType.LOAN, ChangeLog.Operation.DELETE);
+
+        var books = bookIds.isEmpty() ? List.<Book>of() : bookRepository.findByIdIn(bookIds);
+        var loans = loanIds.isEmpty() ? List.<Loan>of() : loanRepository.findAllById(loanIds);
+
+        // Entidades alteradas e depois removidas (ou arquivadas) fora deste lote viram tombstones.
+        deletedBooks.addAll(missing(bookIds, books, Book::getId));
+        deletedLoans.addAll(missing(loanIds, loans, Loan::getId));
+
+        return new ChangeSet(since, next, more, books, loans, new ArrayList<>(deletedBooks), new ArrayList<>(deletedLoans));
+    }
+
+    @Override
+    @Transactional
+    public int compact(Instant before) {
+        return repository.deleteSuperseded(before);
+    }
+
+    /**
+     * Ids da entidade cuja última alteração no lote foi a operação informada.
+     */
+    private static Set<Long> idsOf(List<ChangeLog> changes, ChangeLog.EntityType entityType,
+                                   ChangeLog.Operation operation) {
+        var latest = changes.stream()
+                .filter(change -> change.getEntityType() == entityType)
+                .collect(Collectors.toMap(ChangeLog::getEntityId, ChangeLog::getOperation, (first, last) -> last));
+
+        return changes.stream()
+                .filter(change -> change.getEntityType() == entityType)
+                .map(ChangeLog::getEntityId)
+                .filter(id -> latest.get(id) == operation)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static <T> Set<Long> missing(Set<Long> ids, List<T> found, Function<T, Long> idOf) {
+        var missing = new LinkedHashSet<>(ids);
+        found.forEach(entity -> missing.remove(idOf.apply(entity)));
+
+        return missing;
+    }
+}
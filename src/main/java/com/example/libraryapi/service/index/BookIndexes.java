@@ -0,0 +1,286 @@
+package com.example.libraryapi.service.index;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.repository.BookRepository;
+import com.example.libraryapi.service.support.AfterCommit;
+import com.example.libraryapi.service.support.CatalogSnapshot;
+import com.example.libraryapi.service.support.LongHashIndex;
+import com.example.libraryapi.service.support.PrefixIndex;
+import com.example.libraryapi.service.support.ScalableBloomFilter;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Índices em memória do catálogo: autocompletar, ISBN → id e o filtro de ISBNs cadastrados. Cuida
+ * também do ciclo de vida deles: aquecimento pelo snapshot, reconstrução ou reconciliação com o
+ * banco na subida e gravação periódica do snapshot.
+ *
+ * <p>Os índices são atualizados só depois do commit; o banco continua sendo a fonte da verdade.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class BookIndexes {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final BookRepository repository;
+
+    private final PrefixIndex autocompleteIndex;
+
+    private final LongHashIndex isbnIndex;
+
+    private final ScalableBloomFilter isbnFilter;
+
+    private final CatalogSnapshot catalogSnapshot;
+
+    /**
+     * Livros carregados do snapshot como pares (id, isbnKey), conferidos com o banco na reconciliação.
+     */
+    private final LongHashIndex snapshotBooks = new LongHashIndex("book.snapshot", 16);
+
+    private final ExecutorService reconciliation =
+            Executors.newSingleThreadExecutor(reconciliationThreadFactory());
+
+    /**
+     * O filtro só responde "não existe" com certeza; nesse caso a consulta de existência é
+     * dispensada e a constraint única de isbnKey continua sendo a garantia final. Uma chave no índice
+     * de ISBN também é confirmada no banco, já que pode ter vindo de um snapshot desatualizado, e é
+     * removida quando o livro não existe mais.
+     */
+    public boolean isDuplicated(long isbnKey) {
+        if (isbnIndex.containsKey(isbnKey)) {
+            var exists = repository.existsByIsbnKey(isbnKey);
+            if (!exists) {
+                isbnIndex.remove(isbnKey);
+            }
+            return exists;
+        }
+
+        if (!isbnFilter.mightContain(isbnKey)) {
+            return false;
+        }
+
+        var exists = repository.existsByIsbnKey(isbnKey);
+        if (!exists) {
+            isbnFilter.recordFalsePositive();
+        }
+
+        return exists;
+    }
+
+    /**
+     * Id do livro com o ISBN informado ou {@link LongHashIndex#MISSING}; o chamador confirma no
+     * banco e descarta a entrada com {@link #removeIsbn(long)} quando o livro não existe mais.
+     */
+    public long findId(long isbnKey) {
+        return isbnIndex.get(isbnKey);
+    }
+
+    public void putIsbn(long isbnKey, long id) {
+        isbnIndex.put(isbnKey, id);
+    }
+
+    public void removeIsbn(long isbnKey) {
+        isbnIndex.remove(isbnKey);
+    }
+
+    public List<PrefixIndex.Suggestion> suggest(String query, int limit) {
+        return autocompleteIndex.suggest(query, limit);
+    }
+
+    public Book indexAfterCommit(Book book) {
+        AfterCommit.run(() -> index(book));
+        return book;
+    }
+
+    public void removeAfterCommit(Book book) {
+        AfterCommit.run(() -> {
+            autocompleteIndex.remove(book.getId());
+            if (book.getIsbnKey() != null) {
+                isbnIndex.remove(book.getIsbnKey());
+            }
+        });
+    }
+
+    /**
+     * Aquece os índices com o snapshot do catálogo antes de a aplicação aceitar requisições; a
+     * conferência com o banco fica para {@link #rebuild()}.
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        var loaded = catalogSnapshot.load(book -> {
+            index(book);
+            snapshotBooks.put(book.getId(), book.getIsbnKey() == null ? 0 : book.getIsbnKey());
+        });
+
+        if (loaded >= 0) {
+            log.info("BOOK INDEXES WARMED WITH {} BOOKS FROM THE CATALOG SNAPSHOT", loaded);
+        }
+    }
+
+    /**
+     * Sem snapshot, reconstrói os índices a partir do banco. Com snapshot, a reconciliação roda em
+     * background sobre os índices já aquecidos, que continuam atendendo as leituras.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (snapshotBooks.size() == 0) {
+            autocompleteIndex.clear();
+            isbnIndex.clear();
+            isbnFilter.clear();
+
+            log.info("BOOK INDEXES REBUILT WITH {} BOOKS", indexAll(book -> { }));
+            return;
+        }
+
+        reconciliation.execute(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("BOOK INDEX RECONCILIATION FAILED, INDEXES KEEP THE SNAPSHOT STATE: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reindexa os livros do banco sem limpar os índices e remove as entradas do snapshot que não
+     * existem mais (ou cujo ISBN mudou). O filtro de ISBN não remove chaves: uma chave antiga só
+     * custa uma consulta de existência a mais.
+     */
+    public void reconcile() {
+        var start = System.nanoTime();
+        var current = new LongHashIndex("book.reconciliation", Math.max(16, snapshotBooks.size()));
+        var total = indexAll(book -> current.put(book.getId(), book.getIsbnKey() == null ? 0 : book.getIsbnKey()));
+
+        var removed = new int[]{0};
+        snapshotBooks.forEach((id, isbnKey) -> {
+            var currentKey = current.get(id);
+            if (currentKey == LongHashIndex.MISSING) {
+                autocompleteIndex.remove(id);
+                removed[0]++;
+            }
+            if (isbnKey != 0 && currentKey != isbnKey && isbnIndex.get(isbnKey) == id) {
+                isbnIndex.remove(isbnKey);
+            }
+        });
+        snapshotBooks.clear();
+
+        log.info("BOOK INDEXES RECONCILED WITH {} BOOKS ({} REMOVED) IN {} MS",
+                total, removed[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${application.books.snapshot.interval}",
+               fixedDelayString = "${application.books.snapshot.interval}")
+    public void scheduledSnapshot() {
+        writeSnapshot();
+    }
+
+    /**
+     * Uma reconciliação ainda em andamento é interrompida; o snapshot gravado reflete os índices do
+     * banco, não o estado parcial deles.
+     */
+    @PreDestroy
+    public void stop() {
+        reconciliation.shutdownNow();
+        writeSnapshot();
+    }
+
+    public void writeSnapshot() {
+        if (!catalogSnapshot.isEnabled()) {
+            return;
+        }
+
+        try {
+            var written = catalogSnapshot.write(allBooks());
+            log.info("CATALOG SNAPSHOT WRITTEN WITH {} BOOKS", written);
+        } catch (IOException | RuntimeException e) {
+            log.error("CATALOG SNAPSHOT FAILED", e);
+        }
+    }
+
+    private long indexAll(Consumer<Book> indexed) {
+        Page<Book> page;
+        var pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        do {
+            page = repository.findAll(pageable);
+            page.forEach(book -> indexed.accept(index(book)));
+            pageable = pageable.next();
+        } while (page.hasNext());
+
+        return page.getTotalElements();
+    }
+
+    /**
+     * Percorre o catálogo página a página, sem carregar todos os livros de uma vez.
+     */
+    private Iterator<Book> allBooks() {
+        return new Iterator<>() {
+
+            private Page<Book> page = repository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            private Iterator<Book> books = page.iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!books.hasNext() && page.hasNext()) {
+                    page = repository.findAll(page.nextPageable());
+                    books = page.iterator();
+                }
+                return books.hasNext();
+            }
+
+            @Override
+            public Book next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return books.next();
+            }
+        };
+    }
+
+    private Book index(Book book) {
+        if (book != null && book.getId() != null) {
+            var values = new HashMap<String, String>();
+            if (book.getTitle() != null) {
+                values.put("title", book.getTitle());
+            }
+            if (book.getAuthor() != null) {
+                values.put("author", book.getAuthor());
+            }
+            autocompleteIndex.put(book.getId(), values);
+
+            if (book.getIsbnKey() != null) {
+                isbnIndex.put(book.getIsbnKey(), book.getId());
+                isbnFilter.put(book.getIsbnKey());
+            }
+        }
+
+        return book;
+    }
+
+    private static CustomizableThreadFactory reconciliationThreadFactory() {
+        var factory = new CustomizableThreadFactory("book-index-reconciliation-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
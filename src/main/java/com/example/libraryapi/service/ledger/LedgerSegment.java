@@ -0,0 +1,183 @@
+package com.example.libraryapi.service.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmento do ledger: um arquivo de tamanho fixo mapeado em memória com registros de
+ * {@value #RECORD_SIZE} bytes, gravados em sequência.
+ *
+ * <pre>[crc32c:int][tipo:byte][0:byte][0:short][sequência:long][empréstimo:long][livro:long]</pre>
+ *
+ * O CRC cobre os bytes 4 a 31 e a sequência de cada registro deve ser a do anterior mais um; a
+ * leitura para no primeiro registro que falhe qualquer das verificações, o que cobre tanto a área
+ * ainda não gravada (zeros) quanto um registro rasgado por uma queda no meio da escrita.
+ */
+final class LedgerSegment implements Closeable {
+
+    static final int RECORD_SIZE = 32;
+
+    private static final String SUFFIX = ".log";
+
+    private final long firstSequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    private LedgerSegment(long firstSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.firstSequence = firstSequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Path path(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    }
+
+    static boolean isSegment(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static long firstSequence(Path path) {
+        var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Abre o segmento para escrita a partir de {@code validBytes}. O restante do arquivo é zerado:
+     * registros antigos depois de um registro rasgado poderiam ter sequência válida em relação aos
+     * novos e voltariam a ser lidos numa recuperação futura.
+     */
+    static LedgerSegment open(Path directory, long firstSequence, int size, int validBytes) throws IOException {
+        var path = path(directory, firstSequence);
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var capacity = Math.max(size, validBytes) / RECORD_SIZE * RECORD_SIZE;
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        for (int i = validBytes; i < capacity; i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+        buffer.position(validBytes);
+
+        return new LedgerSegment(firstSequence, path, channel, buffer);
+    }
+
+    static Scan scan(Path path) throws IOException {
+        var firstSequence = firstSequence(path);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = (int) Math.min(channel.size(), Integer.MAX_VALUE) / RECORD_SIZE * RECORD_SIZE;
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var crc = new CRC32C();
+            var records = new long[Math.max(16, size / RECORD_SIZE / 8) * 3];
+
+            var count = 0;
+            var offset = 0;
+            var expected = firstSequence;
+            while (offset + RECORD_SIZE <= size) {
+                var sequence = buffer.getLong(offset + 8);
+                if (sequence != expected || checksum(crc, buffer, offset) != buffer.getInt(offset)) {
+                    break;
+                }
+
+                if (count * 3 + 3 > records.length) {
+                    records = Arrays.copyOf(records, records.length * 2);
+                }
+                records[count * 3] = buffer.get(offset + 4);
+                records[count * 3 + 1] = buffer.getLong(offset + 16);
+                records[count * 3 + 2] = buffer.getLong(offset + 24);
+
+                count++;
+                expected++;
+                offset += RECORD_SIZE;
+            }
+
+            var torn = offset + RECORD_SIZE <= size && !isZero(buffer, offset);
+            return new Scan(path, firstSequence, records, count, offset, torn);
+        }
+    }
+
+    boolean hasRoom() {
+        return buffer.remaining() >= RECORD_SIZE;
+    }
+
+    void append(byte type, long sequence, long loanId, long bookId) {
+        var offset = buffer.position();
+        buffer.put(offset + 4, type);
+        buffer.put(offset + 5, (byte) 0);
+        buffer.putShort(offset + 6, (short) 0);
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, loanId);
+        buffer.putLong(offset + 24, bookId);
+        buffer.putInt(offset, checksum(crc, buffer, offset));
+        buffer.position(offset + RECORD_SIZE);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int checksum(CRC32C crc, ByteBuffer buffer, int offset) {
+        crc.reset();
+        crc.update(buffer.duplicate().limit(offset + RECORD_SIZE).position(offset + 4));
+        return (int) crc.getValue();
+    }
+
+    private static boolean isZero(ByteBuffer buffer, int offset) {
+        for (int i = offset; i < offset + RECORD_SIZE; i += Long.BYTES) {
+            if (buffer.getLong(i) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Registros válidos de um segmento, em {@code records} como trios (tipo, empréstimo, livro).
+     */
+    static final class Scan {
+
+        final Path path;
+        final long firstSequence;
+        final long[] records;
+        final int count;
+        final int validBytes;
+        final boolean torn;
+
+        private Scan(Path path, long firstSequence, long[] records, int count, int validBytes, boolean torn) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.records = records;
+            this.count = count;
+            this.validBytes = validBytes;
+            this.torn = torn;
+        }
+
+        long lastSequence() {
+            return firstSequence + count - 1;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.libraryapi.service.ledger;
+
+import com.example.libraryapi.service.support.LongHashIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Cópia do estado de empréstimos ativos até uma sequência do ledger.
+ *
+ * <pre>[magic:long][sequência:long][quantidade:int]([livro:long][empréstimo:long])*[crc32c:int]</pre>
+ *
+ * É gravada em um arquivo temporário e movida atomicamente; um arquivo com CRC inválido é ignorado.
+ */
+final class LedgerSnapshot {
+
+    private static final long MAGIC = 0x4C4F414E534E4150L;
+    private static final int HEADER_SIZE = Long.BYTES * 2 + Integer.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES * 2;
+    private static final String SUFFIX = ".snapshot";
+
+    private LedgerSnapshot() {
+    }
+
+    static boolean isSnapshot(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static long sequence(Path path) {
+        var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static Path write(Path directory, long sequence, long[] bookIds, long[] loanIds, int count) throws IOException {
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + count * ENTRY_SIZE + Integer.BYTES);
+        buffer.putLong(MAGIC).putLong(sequence).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(bookIds[i]).putLong(loanIds[i]);
+        }
+        buffer.putInt(checksum(buffer, buffer.position()));
+        buffer.flip();
+
+        var path = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+        var temporary = directory.resolve(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        return Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Carrega o snapshot em {@code target}, que só é alterado se o arquivo for válido.
+     */
+    static Optional<Long> read(Path path, LongHashIndex target) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE + Integer.BYTES || buffer.getLong(0) != MAGIC) {
+            return Optional.empty();
+        }
+
+        var count = buffer.getInt(Long.BYTES * 2);
+        var end = HEADER_SIZE + (long) count * ENTRY_SIZE;
+        if (count < 0 || end + Integer.BYTES != buffer.remaining()
+                || checksum(buffer, (int) end) != buffer.getInt((int) end)) {
+            return Optional.empty();
+        }
+
+        for (int i = 0; i < count; i++) {
+            var offset = HEADER_SIZE + i * ENTRY_SIZE;
+            target.put(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+        }
+
+        return Optional.of(buffer.getLong(Long.BYTES));
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        var crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(length).position(0));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.libraryapi.service.ledger;
+
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.service.support.LongHashIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Ledger append-only das mudanças de estado dos empréstimos, em segmentos mapeados em memória
+ * (ver {@link LedgerSegment}). Cada criação ou devolução é gravada antes de o serviço responder, e o
+ * índice de empréstimos ativos por livro é reconstruído a partir do último snapshot válido e dos
+ * segmentos posteriores, lidos em paralelo.
+ *
+ * <p>Numa transação, o que ocupa o livro é gravado antes do commit e o que o libera, depois. Uma
+ * queda entre as duas coisas deixa no máximo um empréstimo ativo a mais: a ausência no ledger é
+ * definitiva, mas a presença precisa ser confirmada no banco. Isso vale enquanto esta instância for a
+ * única a emprestar livros nesse banco; o que ela não viu (o ledger desabilitado por um tempo, um
+ * backup restaurado) é reconciliado na inicialização com {@link #seed(Collection)}.
+ *
+ * <p>Com {@code force-on-append} desligado, o registro está na page cache ao retornar: sobrevive à
+ * queda do processo, mas não à do sistema operacional. Ligado, cada gravação faz {@code msync}.
+ *
+ * <p>As gravações são serializadas por um {@link ReentrantLock} e não pelo monitor do objeto: a
+ * troca de segmento ({@code mmap}) e o {@code msync} acontecem no caminho do empréstimo e, com
+ * threads virtuais, bloquear segurando um monitor prenderia a thread carregadora.
+ *
+ * <p>Desabilitado, o ledger não abre arquivos e as gravações são ignoradas.
+ */
+@Slf4j
+public class LoanLedger implements MeterBinder {
+
+    public enum Type {
+        CREATED,
+        RETURNED,
+        CANCELLED;
+
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        static Type of(long code) {
+            return values()[(int) code - 1];
+        }
+
+        /**
+         * Registro que desfaz este, gravado quando a transação que o originou sofre rollback.
+         */
+        Type inverse() {
+            return this == CREATED ? CANCELLED : CREATED;
+        }
+    }
+
+    static final int RETAINED_SNAPSHOTS = 2;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+
+    private final LongHashIndex activeLoans = new LongHashIndex("loan.ledger.active", 1024);
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final LongAdder appends = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private LedgerSegment current;
+    private long nextSequence = 1;
+    private long recoveredRecords;
+    private int tornSegments;
+    private long recoveryNanos;
+
+    public LoanLedger(boolean enabled, Path directory, int segmentSize, boolean forceOnAppend) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize / LedgerSegment.RECORD_SIZE * LedgerSegment.RECORD_SIZE;
+        this.forceOnAppend = forceOnAppend;
+
+        if (this.segmentSize < LedgerSegment.RECORD_SIZE) {
+            throw new IllegalArgumentException("O segmento do ledger deve comportar ao menos um registro.");
+        }
+    }
+
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            recover();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop() throws IOException {
+        lock.lock();
+        try {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        var start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        var snapshotSequence = loadSnapshot();
+        nextSequence = snapshotSequence + 1;
+
+        LedgerSegment.Scan last = null;
+        for (var scan : scanSegments()) {
+            segments.put(scan.firstSequence, scan.path);
+            if (scan.torn) {
+                tornSegments++;
+                log.warn("LOAN LEDGER SEGMENT {} TRUNCATED AFTER SEQUENCE {}", scan.path.getFileName(), scan.lastSequence());
+            }
+
+            for (int i = 0; i < scan.count; i++) {
+                if (scan.firstSequence + i > snapshotSequence) {
+                    apply(Type.of(scan.records[i * 3]), scan.records[i * 3 + 1], scan.records[i * 3 + 2]);
+                    recoveredRecords++;
+                }
+            }
+            nextSequence = Math.max(nextSequence, scan.lastSequence() + 1);
+            last = scan;
+        }
+
+        if (last != null && last.lastSequence() + 1 == nextSequence) {
+            current = LedgerSegment.open(directory, last.firstSequence, segmentSize, last.validBytes);
+        } else {
+            current = LedgerSegment.open(directory, nextSequence, segmentSize, 0);
+            segments.put(nextSequence, current.getPath());
+        }
+
+        recoveryNanos = System.nanoTime() - start;
+        log.info("LOAN LEDGER RECOVERED {} ACTIVE LOANS FROM SNAPSHOT {} AND {} RECORDS IN {} MS",
+                activeLoans.size(), snapshotSequence, recoveredRecords, TimeUnit.NANOSECONDS.toMillis(recoveryNanos));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Nenhum registro foi gravado ainda: o ledger acabou de ser habilitado.
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return nextSequence == 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isBookActive(long bookId) {
+        return activeLoans.containsKey(bookId);
+    }
+
+    public boolean isLoanActive(long bookId, long loanId) {
+        return activeLoans.get(bookId) == loanId;
+    }
+
+    public int getActiveCount() {
+        return activeLoans.size();
+    }
+
+    /**
+     * Grava a mudança de estado do empréstimo. Dentro de uma transação, a criação é gravada na hora e
+     * um rollback grava o registro inverso; a devolução só é gravada depois do commit, para que o
+     * ledger nunca libere um livro que o banco ainda considera emprestado.
+     */
+    public void append(Type type, Loan loan) {
+        if (!enabled) {
+            return;
+        }
+
+        long loanId = loan.getId();
+        long bookId = loan.getBook().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(type, loanId, bookId);
+            return;
+        }
+
+        if (type == Type.CREATED) {
+            write(type, loanId, bookId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (type != Type.CREATED) {
+                    write(type, loanId, bookId);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (type == Type.CREATED && status == STATUS_ROLLED_BACK) {
+                    write(type.inverse(), loanId, bookId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra como criados empréstimos ativos no banco que o ledger não conhece: os existentes antes
+     * de ele ser habilitado, os criados enquanto esteve desabilitado ou os de um banco restaurado.
+     */
+    public void seed(Collection<Loan> loans) {
+        loans.forEach(loan -> write(Type.CREATED, loan.getId(), loan.getBook().getId()));
+    }
+
+    @Scheduled(initialDelayString = "${application.loans.ledger.snapshot-interval}",
+               fixedDelayString = "${application.loans.ledger.snapshot-interval}")
+    public void scheduledSnapshot() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.error("LOAN LEDGER SNAPSHOT FAILED", e);
+        }
+    }
+
+    /**
+     * Grava o estado atual e remove os snapshots antigos e os segmentos já cobertos pelo snapshot
+     * mais antigo mantido; são mantidos {@value #RETAINED_SNAPSHOTS} para o caso de o último estar
+     * corrompido.
+     */
+    public Path snapshot() throws IOException {
+        long sequence;
+        long[] bookIds;
+        long[] loanIds;
+        int[] count = {0};
+
+        lock.lock();
+        try {
+            current.force();
+            sequence = nextSequence - 1;
+            bookIds = new long[activeLoans.size()];
+            loanIds = new long[bookIds.length];
+            activeLoans.forEach((bookId, loanId) -> {
+                bookIds[count[0]] = bookId;
+                loanIds[count[0]++] = loanId;
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        var path = LedgerSnapshot.write(directory, sequence, bookIds, loanIds, count[0]);
+        compact();
+
+        return path;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        activeLoans.bindTo(registry);
+        FunctionCounter.builder("loans.ledger.appends", appends, LongAdder::sum)
+                .description("Registros gravados no ledger de empréstimos")
+                .register(registry);
+        Gauge.builder("loans.ledger.segments", this, ledger -> ledger.segmentCount())
+                .register(registry);
+        Gauge.builder("loans.ledger.recovered.records", this, ledger -> ledger.recoveredRecords)
+                .register(registry);
+        Gauge.builder("loans.ledger.torn.segments", this, ledger -> ledger.tornSegments)
+                .register(registry);
+        TimeGauge.builder("loans.ledger.recovery.time", this, TimeUnit.NANOSECONDS, ledger -> ledger.recoveryNanos)
+                .register(registry);
+    }
+
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Type type, long loanId, long bookId) {
+        lock.lock();
+        try {
+            if (current == null) {
+                throw new IllegalStateException("Ledger de empréstimos não iniciado.");
+            }
+            if (!current.hasRoom()) {
+                roll();
+            }
+
+            current.append(type.code(), nextSequence++, loanId, bookId);
+            if (forceOnAppend) {
+                current.force();
+            }
+
+            apply(type, loanId, bookId);
+            appends.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() {
+        try {
+            current.close();
+            current = LedgerSegment.open(directory, nextSequence, segmentSize, 0);
+            segments.put(nextSequence, current.getPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void apply(Type type, long loanId, long bookId) {
+        if (type == Type.CREATED) {
+            activeLoans.put(bookId, loanId);
+        } else if (activeLoans.get(bookId) == loanId) {
+            activeLoans.remove(bookId);
+        }
+    }
+
+    private long loadSnapshot() throws IOException {
+        for (var path : list(LedgerSnapshot::isSnapshot, Comparator.reverseOrder())) {
+            activeLoans.clear();
+            var sequence = LedgerSnapshot.read(path, activeLoans);
+            if (sequence.isPresent()) {
+                return sequence.get();
+            }
+            log.warn("LOAN LEDGER SNAPSHOT {} IS CORRUPTED, TRYING AN OLDER ONE", path.getFileName());
+        }
+
+        activeLoans.clear();
+        return 0;
+    }
+
+    private List<LedgerSegment.Scan> scanSegments() throws IOException {
+        try {
+            return list(LedgerSegment::isSegment, Comparator.naturalOrder()).parallelStream()
+                    .map(path -> {
+                        try {
+                            return LedgerSegment.scan(path);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void compact() throws IOException {
+        lock.lock();
+        try {
+            var snapshots = list(LedgerSnapshot::isSnapshot, Comparator.reverseOrder());
+            for (int i = RETAINED_SNAPSHOTS; i < snapshots.size(); i++) {
+                Files.deleteIfExists(snapshots.get(i));
+            }
+
+            var covered = LedgerSnapshot.sequence(snapshots.get(Math.min(RETAINED_SNAPSHOTS, snapshots.size()) - 1));
+            var iterator = segments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var segment = iterator.next();
+                var following = segments.higherKey(segment.getKey());
+                if (following == null || following - 1 > covered) {
+                    break;
+                }
+                Files.deleteIfExists(segment.getValue());
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Path> list(Predicate<Path> filter, Comparator<Path> order) throws IOException {
+        try (var files = Files.list(directory)) {
+            var paths = files.filter(filter).collect(Collectors.toCollection(ArrayList::new));
+            paths.sort(Comparator.comparing(Path::getFileName, order));
+            return paths;
+        }
+    }
+}
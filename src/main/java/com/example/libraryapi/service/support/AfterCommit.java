@@ -0,0 +1,29 @@
+package com.example.libraryapi.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia efeitos fora do banco (eventos, índices em memória) para depois do commit da transação
+ * corrente, para que um rollback não deixe publicado ou indexado algo que o banco desfez. Fora de
+ * uma transação, a ação roda na hora.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
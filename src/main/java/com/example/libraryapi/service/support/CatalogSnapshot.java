@@ -0,0 +1,189 @@
+package com.example.libraryapi.service.support;
+
+import com.example.libraryapi.api.model.entity.Book;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário do catálogo usado para aquecer os índices em memória na inicialização, antes de
+ * consultar o banco.
+ *
+ * <pre>[magic:long]([id:long][isbnKey:long][isbn][título][autor])*[0:long][quantidade:int][crc32c:int]</pre>
+ *
+ * Os textos são gravados como {@code [tamanho:int][UTF-8]}, com tamanho -1 para nulo. O arquivo é
+ * lido por mapeamento em memória e descartado por inteiro se o CRC não conferir.
+ */
+@Slf4j
+public class CatalogSnapshot implements MeterBinder {
+
+    private static final long MAGIC = 0x434154414C4F4731L;
+    private static final int TRAILER_SIZE = Integer.BYTES * 2;
+
+    private final boolean enabled;
+    private final Path path;
+
+    private volatile int loadedBooks;
+    private volatile long loadNanos;
+    private volatile int writtenBooks;
+
+    public CatalogSnapshot(boolean enabled, Path path) {
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Entrega os livros do snapshot ao consumidor e retorna quantos foram lidos, ou -1 quando não
+     * há snapshot válido.
+     */
+    public int load(Consumer<Book> consumer) {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return -1;
+        }
+
+        var start = System.nanoTime();
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!isValid(buffer)) {
+                log.warn("CATALOG SNAPSHOT {} IS CORRUPTED, IGNORING IT", path);
+                return -1;
+            }
+
+            var count = 0;
+            buffer.position(Long.BYTES);
+            for (var id = buffer.getLong(); id != 0; id = buffer.getLong()) {
+                var isbnKey = buffer.getLong();
+                consumer.accept(Book.builder()
+                        .id(id)
+                        .isbnKey(isbnKey == 0 ? null : isbnKey)
+                        .isbn(readString(buffer))
+                        .title(readString(buffer))
+                        .author(readString(buffer))
+                        .build());
+                count++;
+            }
+
+            loadedBooks = count;
+            loadNanos = System.nanoTime() - start;
+            return count;
+        } catch (IOException | RuntimeException e) {
+            log.warn("CATALOG SNAPSHOT {} COULD NOT BE READ: {}", path, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Grava os livros em um arquivo temporário e o move atomicamente para o lugar do snapshot.
+     */
+    public int write(Iterator<Book> books) throws IOException {
+        var parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        var temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try {
+            var crc = new CRC32C();
+            var count = 0;
+            try (var checked = new CheckedOutputStream(Files.newOutputStream(temporary), crc);
+                 var output = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16))) {
+                output.writeLong(MAGIC);
+                while (books.hasNext()) {
+                    var book = books.next();
+                    output.writeLong(book.getId());
+                    output.writeLong(book.getIsbnKey() == null ? 0 : book.getIsbnKey());
+                    writeString(output, book.getIsbn());
+                    writeString(output, book.getTitle());
+                    writeString(output, book.getAuthor());
+                    count++;
+                }
+                output.writeLong(0);
+                output.writeInt(count);
+            }
+            // o CRC cobre tudo o que veio antes dele
+            appendChecksum(temporary, crc);
+
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            writtenBooks = count;
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.snapshot.loaded", this, snapshot -> snapshot.loadedBooks)
+                .description("Livros carregados do snapshot do catálogo na inicialização")
+                .register(registry);
+        Gauge.builder("catalog.snapshot.written", this, snapshot -> snapshot.writtenBooks)
+                .description("Livros gravados no último snapshot do catálogo")
+                .register(registry);
+        TimeGauge.builder("catalog.snapshot.load.time", this, TimeUnit.NANOSECONDS, snapshot -> snapshot.loadNanos)
+                .register(registry);
+    }
+
+    private static boolean isValid(ByteBuffer buffer) {
+        if (buffer.limit() < Long.BYTES * 2 + TRAILER_SIZE || buffer.getLong(0) != MAGIC) {
+            return false;
+        }
+
+        var end = buffer.limit() - Integer.BYTES;
+        var crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(end).position(0));
+
+        return (int) crc.getValue() == buffer.getInt(end);
+    }
+
+    private static void appendChecksum(Path file, CRC32C crc) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            var buffer = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
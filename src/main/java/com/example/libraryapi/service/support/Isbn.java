@@ -0,0 +1,104 @@
+package com.example.libraryapi.service.support;
+
+import java.util.OptionalLong;
+
+/**
+ * Normalização de ISBNs. Aceita ISBN-10 e ISBN-13, com ou sem hífens e espaços, valida o dígito
+ * verificador e representa o resultado como o ISBN-13 em um {@code long} (a chave canônica).
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    public static OptionalLong parse(String text) {
+        if (text == null) {
+            return OptionalLong.empty();
+        }
+
+        var digits = new StringBuilder(13);
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c != '-' && c != ' ') {
+                digits.append(c);
+            }
+        }
+
+        if (digits.length() == 10) {
+            return parseIsbn10(digits);
+        }
+        if (digits.length() == 13) {
+            return parseIsbn13(digits);
+        }
+
+        return OptionalLong.empty();
+    }
+
+    public static String format(long key) {
+        return Long.toString(key);
+    }
+
+    /**
+     * Retorna o ISBN-13 canônico quando o texto é um ISBN válido, ou o próprio texto caso contrário.
+     */
+    public static String canonical(String text) {
+        var key = parse(text);
+        return key.isPresent() ? format(key.getAsLong()) : text;
+    }
+
+    private static OptionalLong parseIsbn10(CharSequence digits) {
+        var sum = 0;
+        var value = 978L;
+        for (int i = 0; i < 10; i++) {
+            var c = digits.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (i == 9 && (c == 'X' || c == 'x')) {
+                digit = 10;
+            } else {
+                return OptionalLong.empty();
+            }
+
+            sum += (10 - i) * digit;
+            if (i < 9) {
+                value = value * 10 + digit;
+            }
+        }
+
+        if (sum % 11 != 0) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(value * 10 + checkDigit13(value));
+    }
+
+    private static OptionalLong parseIsbn13(CharSequence digits) {
+        var value = 0L;
+        for (int i = 0; i < 13; i++) {
+            var c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return OptionalLong.empty();
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        var prefix = value / 10_000_000_000L;
+        if ((prefix != 978 && prefix != 979) || checkDigit13(value / 10) != value % 10) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(value);
+    }
+
+    private static long checkDigit13(long first12) {
+        var sum = 0L;
+        for (int i = 0; i < 12; i++) {
+            var digit = first12 % 10;
+            first12 /= 10;
+            sum += i % 2 == 0 ? digit * 3 : digit;
+        }
+
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.libraryapi.service.support;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa {@code long -> long} com endereçamento aberto (sondagem linear) sobre dois arrays
+ * primitivos, sem objetos por entrada. A chave 0 é reservada para posições vazias. Leituras são
+ * otimistas e só recorrem ao lock se houver uma escrita concorrente.
+ */
+public class LongHashIndex implements MeterBinder {
+
+    public static final long MISSING = -1L;
+
+    private static final float MAX_LOAD = 0.5f;
+
+    private final String name;
+    private final StampedLock lock = new StampedLock();
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public LongHashIndex(String name, int initialCapacity) {
+        this.name = name;
+        var capacity = Integer.highestOneBit(Math.max(16, initialCapacity * 2 - 1));
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+    }
+
+    public long get(long key) {
+        var stamp = lock.tryOptimisticRead();
+        var currentKeys = keys;
+        var currentValues = values;
+        var value = currentKeys.length == currentValues.length ? find(currentKeys, currentValues, key) : MISSING;
+        if (lock.validate(stamp)) {
+            return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(keys, values, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+
+        var stamp = lock.writeLock();
+        try {
+            if (size + 1 > keys.length * MAX_LOAD) {
+                resize(keys.length * 2);
+            }
+
+            var mask = keys.length - 1;
+            var slot = slot(key, mask);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long key) {
+        checkKey(key);
+
+        var stamp = lock.writeLock();
+        try {
+            var mask = keys.length - 1;
+            var slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == 0) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // deslocamento para trás: mantém as sequências de sondagem sem marcadores de remoção
+            var hole = slot;
+            var next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == 0) {
+                    break;
+                }
+                var home = slot(keys[next], mask);
+                var between = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!between) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = 0;
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        var stamp = lock.writeLock();
+        try {
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, 0);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Percorre as entradas sob o lock de leitura; o consumidor não deve alterar o índice.
+     */
+    public void forEach(EntryConsumer consumer) {
+        var stamp = lock.readLock();
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long key, long value);
+
+    }
+
+    private static long find(long[] keys, long[] values, long key) {
+        var mask = keys.length - 1;
+        var slot = slot(key, mask);
+        for (int probes = 0; probes < keys.length; probes++) {
+            var candidate = keys[slot];
+            if (candidate == key) {
+                return values[slot];
+            }
+            if (candidate == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    private void resize(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        var newKeys = new long[capacity];
+        var newValues = new long[capacity];
+        var mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                var slot = slot(oldKeys[i], mask);
+                while (newKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int slot(long key, int mask) {
+        var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("A chave 0 é reservada.");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hash.index.entries", this, LongHashIndex::size)
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.libraryapi.service.support;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para autocompletar. Cada texto é normalizado (minúsculas, sem acentos e com
+ * espaços simples) e indexado a partir do início de cada palavra em um mapa ordenado, de forma que
+ * uma busca por prefixo é uma faixa contígua do mapa: O(log n) para posicionar e O(k) para ler os
+ * k primeiros resultados. Leituras não bloqueiam; escritas são serializadas.
+ *
+ * <p>A chave é o trecho normalizado, o campo e o texto exibido, sem o id do registro: um texto
+ * repetido em milhares de registros (um autor comum) ocupa uma entrada só, com a contagem de
+ * registros que o contêm, e não atrasa a leitura dos k primeiros.
+ */
+public class PrefixIndex implements MeterBinder {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final String name;
+    private final ConcurrentSkipListMap<String, Entry> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, List<String>> keysById = new ConcurrentHashMap<>();
+    private final AtomicInteger termCount = new AtomicInteger();
+
+    public PrefixIndex(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Indexa (ou reindexa) os textos de um registro, por campo.
+     */
+    public synchronized void put(long id, Map<String, String> values) {
+        remove(id);
+
+        var keys = new ArrayList<String>();
+        values.forEach((field, text) -> {
+            var normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                return;
+            }
+
+            var suggestion = new Suggestion(field, text.trim());
+            for (int start = 0; start >= 0; start = nextWord(normalized, start)) {
+                var key = normalized.substring(start) + SEPARATOR + field + SEPARATOR + suggestion.getText();
+                var entry = terms.get(key);
+                if (entry == null) {
+                    entry = new Entry(suggestion);
+                    terms.put(key, entry);
+                    termCount.incrementAndGet();
+                }
+                entry.references++;
+                keys.add(key);
+            }
+        });
+
+        keysById.put(id, keys);
+    }
+
+    public synchronized void remove(long id) {
+        var keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+
+        for (var key : keys) {
+            var entry = terms.get(key);
+            if (entry != null && --entry.references == 0) {
+                terms.remove(key);
+                termCount.decrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        terms.clear();
+        keysById.clear();
+        termCount.set(0);
+    }
+
+    /**
+     * Retorna até {@code limit} sugestões distintas cujo texto tenha alguma palavra iniciada por
+     * {@code query}, em ordem alfabética a partir do trecho encontrado.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        var result = new LinkedHashSet<Suggestion>();
+        for (var entry : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            result.add(entry.suggestion);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Quantidade de entradas distintas; mantida à parte porque {@code size()} do mapa ordenado
+     * percorre todas elas.
+     */
+    public int size() {
+        return termCount.get();
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        var decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        var withoutMarks = DIACRITICS.matcher(decomposed).replaceAll("");
+
+        return NON_WORD.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static int nextWord(String normalized, int from) {
+        var space = normalized.indexOf(' ', from);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("prefix.index.terms", termCount, AtomicInteger::get)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    /**
+     * Sugestão e quantidade de registros que a indexaram sob a mesma chave; a contagem só é alterada
+     * com o lock das escritas.
+     */
+    private static class Entry {
+
+        private final Suggestion suggestion;
+
+        private int references;
+
+        Entry(Suggestion suggestion) {
+            this.suggestion = suggestion;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Suggestion {
+
+        private final String field;
+
+        private final String text;
+
+    }
+}
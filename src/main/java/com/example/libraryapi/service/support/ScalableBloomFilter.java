@@ -0,0 +1,165 @@
+package com.example.libraryapi.service.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom escalável (Almeida et al.) para chaves {@code long}. A primeira fatia usa
+ * {@code falsePositiveRate / 2} e, quando a fatia atual atinge a capacidade, uma nova fatia com o
+ * dobro da capacidade e metade da taxa de falsos positivos é criada. A soma da série
+ * ({@code p/2 + p/4 + ...}) mantém a taxa total abaixo de {@code falsePositiveRate}. Uma resposta
+ * negativa é definitiva; uma positiva precisa ser confirmada pela fonte de verdade.
+ *
+ * <p>Remoções não são suportadas: chaves removidas continuam respondendo positivo até a próxima
+ * reconstrução, o que só aumenta os falsos positivos, nunca os falsos negativos.
+ */
+public class ScalableBloomFilter implements MeterBinder {
+
+    private static final double LN2 = Math.log(2);
+
+    private final String name;
+    private final double falsePositiveRate;
+    private final List<Slice> slices = new CopyOnWriteArrayList<>();
+    private final LongAdder absent = new LongAdder();
+    private final LongAdder present = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public ScalableBloomFilter(String name, int initialCapacity, double falsePositiveRate) {
+        this.name = name;
+        this.falsePositiveRate = falsePositiveRate;
+        slices.add(new Slice(initialCapacity, falsePositiveRate / 2));
+    }
+
+    public boolean mightContain(long key) {
+        var h1 = mix(key);
+        var h2 = mix(h1) | 1;
+
+        for (var slice : slices) {
+            if (slice.contains(h1, h2)) {
+                present.increment();
+                return true;
+            }
+        }
+
+        absent.increment();
+        return false;
+    }
+
+    public synchronized void put(long key) {
+        var h1 = mix(key);
+        var h2 = mix(h1) | 1;
+
+        var current = slices.get(slices.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Slice(current.capacity * 2, current.falsePositiveRate / 2);
+            slices.add(current);
+        }
+        current.add(h1, h2);
+    }
+
+    public synchronized void clear() {
+        var first = slices.get(0);
+        slices.clear();
+        slices.add(new Slice(first.capacity, falsePositiveRate / 2));
+    }
+
+    /**
+     * Registra que uma resposta positiva não foi confirmada pela fonte de verdade.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Taxa de falsos positivos observada: positivos não confirmados sobre todas as consultas por
+     * chaves ausentes.
+     */
+    public double getObservedFalsePositiveRate() {
+        var negatives = absent.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : (double) falsePositives.sum() / negatives;
+    }
+
+    public long getAbsentCount() {
+        return absent.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public int getSliceCount() {
+        return slices.size();
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bloom.filter.checks", present, LongAdder::sum)
+                .tag("name", name)
+                .tag("result", "present")
+                .register(registry);
+        FunctionCounter.builder("bloom.filter.checks", absent, LongAdder::sum)
+                .tag("name", name)
+                .tag("result", "absent")
+                .description("Definite misses; each one skips an existence query")
+                .register(registry);
+        FunctionCounter.builder("bloom.filter.false.positives", falsePositives, LongAdder::sum)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bloom.filter.false.positive.rate", this, ScalableBloomFilter::getObservedFalsePositiveRate)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bloom.filter.slices", this, ScalableBloomFilter::getSliceCount)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private static final class Slice {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final int hashes;
+        private final long bits;
+        private final AtomicLongArray words;
+        private volatile int count;
+
+        private Slice(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        }
+
+        private boolean contains(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                var bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                var bit = Math.floorMod(h1 + i * h2, bits);
+                var mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+            count++;
+        }
+    }
+}
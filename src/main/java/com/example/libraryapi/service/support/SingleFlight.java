@@ -0,0 +1,99 @@
+package com.example.libraryapi.service.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa chamadas concorrentes para a mesma chave: a primeira executa a consulta e as demais
+ * aguardam o resultado dela, por no máximo maxWait, antes de consultar por conta própria.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final long maxWaitNanos;
+    private final UnaryOperator<V> followerCopy;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public SingleFlight(String name, Duration maxWait, UnaryOperator<V> followerCopy) {
+        this.name = name;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.followerCopy = followerCopy;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        var call = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, call);
+
+        if (existing == null) {
+            executed.increment();
+            try {
+                var value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        try {
+            var value = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return followerCopy.apply(value);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        executed.increment();
+        return loader.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.calls", executed, LongAdder::sum)
+                .description("Lookups that ran their own query")
+                .tag("name", name)
+                .tag("outcome", "executed")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", coalesced, LongAdder::sum)
+                .description("Lookups answered by a concurrent in-flight query")
+                .tag("name", name)
+                .tag("outcome", "coalesced")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", timedOut, LongAdder::sum)
+                .description("Lookups that gave up waiting for the in-flight query")
+                .tag("name", name)
+                .tag("outcome", "timeout")
+                .register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.libraryapi.api.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final int WORKERS = 10;
+    private static final int SERVICE_MILLIS = 10;
+    private static final int DEADLINE_MILLIS = 100;
+    private static final int WARMUP_MILLIS = 1_000;
+    private static final int DURATION_MILLIS = 5_000;
+    private static final double CAPACITY_PER_MILLI = (double) WORKERS / SERVICE_MILLIS;
+
+    @Test
+    @DisplayName("Deve manter o goodput estável quando a carga oferecida dobra.")
+    public void goodputUnderOverloadTest() {
+        //execução
+        var goodput = simulate(createLimiter(), 2 * CAPACITY_PER_MILLI);
+        var doubledLoadGoodput = simulate(createLimiter(), 4 * CAPACITY_PER_MILLI);
+        var unlimitedGoodput = simulate(null, 4 * CAPACITY_PER_MILLI);
+
+        //verificação
+        assertThat(goodput).isGreaterThan(0.8 * CAPACITY_PER_MILLI);
+        assertThat(doubledLoadGoodput).isGreaterThan(0.9 * goodput);
+        assertThat(unlimitedGoodput).isLessThan(0.5 * doubledLoadGoodput);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar requisições acima do limite e reduzir o limite quando houver falhas.")
+    public void rejectAboveLimitTest() {
+        //cenário
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        //execução e verificação
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(0, true);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(0, false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter() {
+        return new AdaptiveConcurrencyLimiter(20, 5, 200, TimeUnit.MILLISECONDS.toNanos(25), 0.9);
+    }
+
+    /**
+     * Servidor com WORKERS trabalhadores em processor sharing: acima da capacidade, cada requisição
+     * em andamento fica mais lenta. Conta como goodput apenas o que termina dentro do prazo do cliente.
+     */
+    private double simulate(AdaptiveConcurrencyLimiter limiter, double arrivalsPerMilli) {
+        var inFlight = new ArrayList<double[]>();
+        var pendingArrivals = 0.0;
+        var completedInTime = 0;
+
+        for (int now = 0; now < DURATION_MILLIS; now++) {
+            pendingArrivals += arrivalsPerMilli;
+            while (pendingArrivals >= 1) {
+                pendingArrivals -= 1;
+                if (limiter == null || limiter.tryAcquire()) {
+                    inFlight.add(new double[]{now, SERVICE_MILLIS});
+                }
+            }
+
+            var share = inFlight.isEmpty() ? 0 : Math.min(1, (double) WORKERS / inFlight.size());
+            var iterator = inFlight.iterator();
+            while (iterator.hasNext()) {
+                var request = iterator.next();
+                request[1] -= share;
+                if (request[1] > 1e-9) {
+                    continue;
+                }
+
+                iterator.remove();
+                var rttMillis = now + 1 - (long) request[0];
+                if (limiter != null) {
+                    limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+                }
+
+                if (now >= WARMUP_MILLIS && rttMillis <= DEADLINE_MILLIS) {
+                    completedInTime++;
+                }
+            }
+        }
+
+        return (double) completedInTime / (DURATION_MILLIS - WARMUP_MILLIS);
+    }
+}
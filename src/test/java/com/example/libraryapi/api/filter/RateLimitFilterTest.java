@@ -0,0 +1,137 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RateLimitFilterTest {
+
+    @Test
+    @DisplayName("Deve liberar requisições até a capacidade do bucket e repor os tokens com o tempo.")
+    public void tokenBucketTest() {
+        //cenário
+        var clock = new AtomicLong();
+        var limiter = new TokenBucketRateLimiter(2, 1, 4, 10, clock::get);
+
+        //execução e verificação
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+        assertThat(limiter.tryAcquire("cliente")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("outro")).isZero();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve descartar os clientes menos recentes quando o stripe estiver cheio.")
+    public void evictIdleClientsTest() {
+        //cenário
+        var limiter = new TokenBucketRateLimiter(1, 1, 1, 3, () -> 0L);
+
+        //execução
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("cliente-" + i);
+        }
+
+        //verificação
+        assertThat(limiter.trackedClients()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 429 sem chamar a aplicação quando o cliente exceder o limite.")
+    public void tooManyRequestsTest() throws Exception {
+        //cenário
+        var registry = new SimpleMeterRegistry();
+        var filter = new RateLimitFilter(createProperties(), new ObjectMapper(), registry);
+
+        //execução
+        var first = perform(filter, "chave-1");
+        var second = perform(filter, "chave-1");
+        var otherClient = perform(filter, "chave-2");
+
+        //verificação
+        assertThat(first.chain.getRequest()).isNotNull();
+        assertThat(second.response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(second.response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(second.response.getContentAsString()).contains("Limite de requisições excedido");
+        assertThat(second.chain.getRequest()).isNull();
+        assertThat(otherClient.chain.getRequest()).isNotNull();
+        assertThat(registry.get("http.ratelimit.requests").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve limitar pelo endereço de origem as requisições com chaves desconhecidas.")
+    public void unknownApiKeyTest() throws Exception {
+        //cenário
+        var filter = new RateLimitFilter(createProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+
+        //execução
+        var first = perform(filter, "aleatoria-1");
+        var second = perform(filter, "aleatoria-2");
+        var otherAddress = perform(filter, "aleatoria-3", "10.0.0.2");
+
+        //verificação
+        assertThat(first.chain.getRequest()).isNotNull();
+        assertThat(second.response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(otherAddress.chain.getRequest()).isNotNull();
+    }
+
+    private Exchange perform(RateLimitFilter filter, String apiKey) throws Exception {
+        return perform(filter, apiKey, "127.0.0.1");
+    }
+
+    private Exchange perform(RateLimitFilter filter, String apiKey, String remoteAddr) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/books");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Api-Key", apiKey);
+        var exchange = new Exchange(new MockHttpServletResponse(), new MockFilterChain());
+
+        filter.doFilter(request, exchange.response, exchange.chain);
+
+        return exchange;
+    }
+
+    private RateLimitProperties createProperties() {
+        var rule = new RateLimitProperties.Rule();
+        rule.setMethod("GET");
+        rule.setPath("/api/books");
+        rule.setCapacity(1);
+        rule.setRefillPerSecond(1);
+
+        var properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        properties.setApiKeys(Set.of("chave-1", "chave-2"));
+
+        return properties;
+    }
+
+    private static class Exchange {
+
+        private final MockHttpServletResponse response;
+        private final MockFilterChain chain;
+
+        private Exchange(MockHttpServletResponse response, MockFilterChain chain) {
+            this.response = response;
+            this.chain = chain;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.libraryapi.api.filter;
+
+import com.example.libraryapi.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveFiltersTest {
+
+    @Test
+    @DisplayName("Deve retornar 429 na pilha reativa com as mesmas regras e chaves da pilha servlet.")
+    public void tooManyRequestsTest() throws Exception {
+        //cenário
+        var filter = new ReactiveRateLimitFilter(createProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+        var calls = new AtomicInteger();
+
+        //execução
+        var first = perform(filter, get("/api/books", "chave-1", "127.0.0.1"), calls);
+        var second = perform(filter, get("/api/books", "chave-1", "127.0.0.1"), calls);
+        var unknownKey = perform(filter, get("/api/books", "aleatoria", "127.0.0.1"), calls);
+        var unknownKeyAgain = perform(filter, get("/api/books", "outra", "127.0.0.1"), calls);
+
+        //verificação
+        assertThat(first.getResponse().getStatusCode()).isNull();
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(second.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(second.getResponse().getBodyAsString().block()).contains("Limite de requisições excedido");
+        assertThat(unknownKey.getResponse().getStatusCode()).isNull();
+        assertThat(unknownKeyAgain.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 503 na pilha reativa acima do limite de concorrência e devolver a vaga ao terminar.")
+    public void overloadedTest() throws Exception {
+        //cenário
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, TimeUnit.SECONDS.toNanos(1), 0.5);
+        var filter = new ReactiveConcurrencyLimitFilter(limiter, new ObjectMapper(), new SimpleMeterRegistry());
+        limiter.tryAcquire();
+
+        //execução
+        var rejected = perform(filter, get("/api/books", null, "127.0.0.1"), new AtomicInteger());
+        limiter.release(0, false);
+        var accepted = perform(filter, get("/api/books", null, "127.0.0.1"), new AtomicInteger());
+
+        //verificação
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getResponse().getBodyAsString().block()).contains("Serviço sobrecarregado");
+        assertThat(accepted.getResponse().getStatusCode()).isNull();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve devolver o X-Request-Id recebido ou gerar um novo na pilha reativa.")
+    public void requestIdTest() {
+        //cenário
+        var filter = new ReactiveRequestIdFilter();
+        var withId = MockServerHttpRequest.get("/api/books").header(RequestIdFilter.REQUEST_ID_HEADER, "abc-123").build();
+
+        //execução
+        var echoed = perform(filter, withId, new AtomicInteger());
+        var generated = perform(filter, MockServerHttpRequest.get("/api/books").build(), new AtomicInteger());
+
+        //verificação
+        assertThat(echoed.getResponse().getHeaders().getFirst(RequestIdFilter.REQUEST_ID_HEADER)).isEqualTo("abc-123");
+        assertThat(generated.getResponse().getHeaders().getFirst(RequestIdFilter.REQUEST_ID_HEADER)).hasSize(36);
+    }
+
+    private MockServerWebExchange perform(WebFilter filter, MockServerHttpRequest request, AtomicInteger calls) {
+        var exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, (ServerWebExchange chained) -> {
+            calls.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        return exchange;
+    }
+
+    private MockServerHttpRequest get(String path, String apiKey, String remoteAddress) {
+        var request = MockServerHttpRequest.get(path).remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+        if (apiKey != null) {
+            request.header("X-Api-Key", apiKey);
+        }
+
+        return request.build();
+    }
+
+    private RateLimitProperties createProperties() {
+        var rule = new RateLimitProperties.Rule();
+        rule.setMethod("GET");
+        rule.setPath("/api/books");
+        rule.setCapacity(1);
+        rule.setRefillPerSecond(1);
+
+        var properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        properties.setApiKeys(Set.of("chave-1"));
+
+        return properties;
+    }
+}
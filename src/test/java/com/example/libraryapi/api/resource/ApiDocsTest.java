@@ -0,0 +1,44 @@
+package com.example.libraryapi.api.resource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O documento OpenAPI é gerado no build a partir deste endpoint (ver {@code static/openapi.json}); o
+ * schema das listagens deve descrever o que o serializador de {@code PageResponse} escreve.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.boot.admin.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:api-docs-test;DB_CLOSE_DELAY=-1"
+})
+public class ApiDocsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @DisplayName("Deve documentar o conteúdo das páginas com o tipo dos itens.")
+    public void pageContentSchemaTest() throws Exception {
+        mvc.perform(get("/v3/api-docs").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("components.schemas.PageResponseBookDTO.properties.content.type").value("array"))
+                .andExpect(jsonPath("components.schemas.PageResponseBookDTO.properties.content.items.$ref")
+                        .value(endsWith("/BookDTO")))
+                .andExpect(jsonPath("components.schemas.PageResponseLoanDTO.properties.content.items.$ref")
+                        .value(endsWith("/LoanDTO")))
+                .andExpect(jsonPath("components.schemas.PageResponseBookDTO.properties.totalElements").exists());
+    }
+}
@@ -5,7 +5,9 @@ import com.example.libraryapi.api.model.entity.Book;
 import com.example.libraryapi.exception.BusinessException;
 import com.example.libraryapi.service.BookService;
 import com.example.libraryapi.service.LoanService;
+import com.example.libraryapi.service.support.PrefixIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -23,12 +26,20 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -143,6 +154,102 @@ public class BookControllerTest {
                 .andExpect(jsonPath("isbn").value(book.getIsbn()));
     }
 
+    @Test
+    @DisplayName("Deve obter apenas os campos solicitados de um livro.")
+    public void getBookWithFieldsTest() throws Exception {
+        //cenário
+        var id = 1L;
+        var book = modelMapper.map(createNewBook(), Book.class);
+        book.setId(id);
+        book.setVersion(3L);
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API + "/" + id + "?fields=title,isbn")
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"book-1-3-isbn.title-json\""))
+                .andExpect(jsonPath("title").value(book.getTitle()))
+                .andExpect(jsonPath("isbn").value(book.getIsbn()))
+                .andExpect(jsonPath("id").doesNotExist())
+                .andExpect(jsonPath("author").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve manter os campos nulos na representação completa e nos campos selecionados.")
+    public void getBookWithNullFieldsTest() throws Exception {
+        //cenário
+        var id = 1L;
+        var book = Book.builder().id(id).title("As Aventuras").isbn("001").build();
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        //execução
+        var full = mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + id).accept(MediaType.APPLICATION_JSON));
+        var sparse = mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + id + "?fields=title,author")
+                .accept(MediaType.APPLICATION_JSON));
+
+        //verificação
+        full.andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"title\":\"As Aventuras\",\"author\":null,\"isbn\":\"001\"}", true));
+        sparse.andExpect(status().isOk())
+                .andExpect(content().json("{\"title\":\"As Aventuras\",\"author\":null}", true));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 304 quando o ETag informado corresponder à versão atual do livro.")
+    public void getBookNotModifiedTest() throws Exception {
+        //cenário
+        var id = 1L;
+        var book = modelMapper.map(createNewBook(), Book.class);
+        book.setId(id);
+        book.setVersion(3L);
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API + "/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"book-1-3-json\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"book-1-3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Deve usar um ETag por tipo de mídia negociado para o mesmo livro.")
+    public void getBookEtagPerMediaTypeTest() throws Exception {
+        //cenário
+        var id = 1L;
+        var book = modelMapper.map(createNewBook(), Book.class);
+        book.setId(id);
+        book.setVersion(3L);
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API + "/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"book-1-3-json\"")
+                .accept(MediaType.APPLICATION_CBOR);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"book-1-3-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + id).accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"book-1-3-json\""));
+    }
+
     @Test
     @DisplayName("Deve retornar resource not found quando o livro procurado não existir.")
     public void bookNotFoundTest() throws Exception {
@@ -195,6 +302,7 @@ public class BookControllerTest {
         var id = 1L;
         var bookToUpdate = Book.builder().id(1L).title("Some Title").author("Some Author").isbn("321").build();
         var updatedBook = createNewBook();
+        updatedBook.setId(id);
         var json = new ObjectMapper().writeValueAsString(updatedBook);
         given(service.getById(id)).willReturn(Optional.of(bookToUpdate));
         given(service.update(bookToUpdate)).willReturn(modelMapper.map(updatedBook, Book.class));
@@ -253,8 +361,113 @@ public class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("number").value(0))
+                .andExpect(jsonPath("pageable").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve obter vários livros por id na ordem solicitada, indicando os não encontrados.")
+    public void getBooksByIdsTest() throws Exception {
+        //cenário
+        var first = Book.builder().id(1L).title("Primeiro").author("Fulano").isbn("001").build();
+        var third = Book.builder().id(3L).title("Terceiro").author("Ciclano").isbn("003").build();
+        given(service.getByIds(List.of(3L, 2L, 1L))).willReturn(Map.of(1L, first, 3L, third));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?ids=3,2,1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("[0].id").value(3))
+                .andExpect(jsonPath("[0].found").value(true))
+                .andExpect(jsonPath("[0].book.title").value("Terceiro"))
+                .andExpect(jsonPath("[1].id").value(2))
+                .andExpect(jsonPath("[1].found").value(false))
+                .andExpect(jsonPath("[1].book").doesNotExist())
+                .andExpect(jsonPath("[2].book.isbn").value("001"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 ao consultar mais livros por id do que o limite.")
+    public void getTooManyBooksByIdsTest() throws Exception {
+        //cenário
+        var ids = LongStream.rangeClosed(1, 401).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?ids=" + ids))
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Informe no máximo 400 livros por consulta."));
+        verify(service, never()).getByIds(any());
+    }
+
+    @Test
+    @DisplayName("Deve obter vários livros por isbn.")
+    public void getBooksByIsbnsTest() throws Exception {
+        var book = Book.builder().id(1L).title("Primeiro").author("Fulano").isbn("001").build();
+        given(service.getByIsbns(List.of("002", "001"))).willReturn(Map.of("001", book));
+
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?isbns=002,001&fields=id"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0].isbn").value("002"))
+                .andExpect(jsonPath("[0].found").value(false))
+                .andExpect(jsonPath("[1].found").value(true))
+                .andExpect(jsonPath("[1].book.id").value(1))
+                .andExpect(jsonPath("[1].book.title").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve retornar sugestões de autocompletar limitadas.")
+    public void autocompleteTest() throws Exception {
+        given(service.autocomplete("sen", 50))
+                .willReturn(List.of(new PrefixIndex.Suggestion("title", "O Senhor dos Anéis")));
+
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/autocomplete?q=sen&limit=500"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("[0].field").value("title"))
+                .andExpect(jsonPath("[0].text").value("O Senhor dos Anéis"));
+    }
+
+    @Test
+    @DisplayName("Deve buscar por livros em CBOR quando solicitado pelo cliente.")
+    public void findBooksAsCborTest() throws Exception {
+        var book = modelMapper.map(createNewBook(), Book.class);
+        book.setId(1L);
+
+        given(service.find(any(), any()))
+                .willReturn(new PageImpl<>(List.of(book), PageRequest.of(0, 100), 1));
+
+        var request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?page=0&size=100"))
+                .accept(MediaType.APPLICATION_CBOR);
+
+        var response = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse();
+
+        var page = new ObjectMapper(new CBORFactory()).readTree(response.getContentAsByteArray());
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("content").get(0).get("isbn").asText()).isEqualTo(book.getIsbn());
     }
 
     private BookDTO createNewBook() {
@@ -5,6 +5,8 @@ import com.example.libraryapi.api.dto.LoanFilterDTO;
 import com.example.libraryapi.api.dto.ReturnedLoanDTO;
 import com.example.libraryapi.api.model.entity.Book;
 import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.LoanSummary;
+import com.example.libraryapi.api.model.repository.LoanVersionSummary;
 import com.example.libraryapi.exception.BusinessException;
 import com.example.libraryapi.service.BookService;
 import com.example.libraryapi.service.LoanService;
@@ -19,6 +21,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -30,9 +33,13 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.example.libraryapi.service.LoanServiceTest.createLoan;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -164,7 +171,8 @@ public class LoanControllerTest {
         loan.setId(id);
         loan.setBook(book);
 
-        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class)))
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(1, 1, 0, 0));
+        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class), anyBoolean()))
                 .willReturn(new PageImpl<>(List.of(loan), PageRequest.of(0, 10), 1));
 
         var queryString = String.format("?isbn=%s&customer=%s&page=0&size=10", book.getIsbn(), loan.getCustomer());
@@ -177,8 +185,161 @@ public class LoanControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(10))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("size").value(10))
+                .andExpect(jsonPath("number").value(0))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 304 sem buscar os empréstimos quando a página não mudou.")
+    public void findLoansNotModifiedTest() throws Exception {
+        //cenário
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(1, 1, 0, 0));
+        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class), anyBoolean()))
+                .willReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        var firstResponse = mvc.perform(MockMvcRequestBuilders
+                        .get(LOAN_API.concat("?isbn=321&customer=Fulano&page=0&size=10"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+        var etag = firstResponse.getHeader(HttpHeaders.ETAG);
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?isbn=321&customer=Fulano&page=0&size=10"))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request).andExpect(status().isNotModified());
+
+        verify(loanService, times(1)).find(any(LoanFilterDTO.class), any(Pageable.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Deve mudar o ETag da listagem quando um livro dos empréstimos for alterado.")
+    public void findLoansBookChangedTest() throws Exception {
+        //cenário
+        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class), anyBoolean()))
+                .willReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+        var request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?isbn=321&customer=Fulano&page=0&size=10"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        //execução
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(1, 1, 0, 0));
+        var before = mvc.perform(request).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(1, 1, 0, 1));
+        var after = mvc.perform(request).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //verificação
+        assertThat(before).isNotNull().isNotEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("Deve buscar apenas os campos solicitados dos empréstimos sem carregar o livro.")
+    public void findLoansWithFieldsTest() throws Exception {
+        //cenário
+        LoanSummary summary = new LoanSummary() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getCustomer() {
+                return "Fulano";
+            }
+
+            @Override
+            public String getEmail() {
+                return "fulano@email.com";
+            }
+        };
+
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(1, 1, 0, 0));
+        given(loanService.findSummaries(any(LoanFilterDTO.class), any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Fulano&page=0&size=10&fields=id,customer"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].id").value(1))
+                .andExpect(jsonPath("content[0].customer").value("Fulano"))
+                .andExpect(jsonPath("content[0].email").doesNotExist())
+                .andExpect(jsonPath("content[0].book").doesNotExist());
+
+        verify(loanService, never()).find(any(LoanFilterDTO.class), any(Pageable.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Deve incluir o histórico de empréstimos arquivados quando solicitado.")
+    public void findLoansWithHistoryTest() throws Exception {
+        //cenário
+        var book = Book.builder().id(1L).isbn("321").build();
+        var loan = createLoan();
+        loan.setId(1L);
+        loan.setBook(book);
+        loan.setReturned(true);
+
+        given(loanService.getLoanVersions(any(LoanFilterDTO.class))).willReturn(createSummary(0, 0, 0, 0));
+        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class), eq(true)))
+                .willReturn(new PageImpl<>(List.of(loan), PageRequest.of(0, 10), 1));
+
+        //execução
+        var request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Fulano&page=0&size=10&history=true&fields=id,customer"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        //verificação
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(1));
+
+        verify(loanService, never()).findSummaries(any(LoanFilterDTO.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao solicitar um campo inexistente.")
+    public void findLoansWithInvalidFieldsTest() throws Exception {
+        var request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Fulano&fields=id,senha"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Campo inválido em fields: senha"));
+    }
+
+    private LoanVersionSummary createSummary(long count, long maxId, long versionSum, long bookVersionSum) {
+        return new LoanVersionSummary() {
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public long getMaxId() {
+                return maxId;
+            }
+
+            @Override
+            public long getVersionSum() {
+                return versionSum;
+            }
+
+            @Override
+            public long getBookVersionSum() {
+                return bookVersionSum;
+            }
+        };
     }
 
 }
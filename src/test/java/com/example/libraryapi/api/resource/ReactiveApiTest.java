@@ -0,0 +1,186 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.filter.RequestIdFilter;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.LoanService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles({"test", "reactive"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.boot.admin.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:reactive-test;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-test?options=DB_CLOSE_DELAY=-1"
+})
+public class ReactiveApiTest {
+
+    private static final String BOOK_API = "/api/books";
+    private static final String LOAN_API = "/api/loans";
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Book book;
+
+    @BeforeEach
+    public void setUp() {
+        book = bookService.getBookByIsbn("9780306406157").orElseGet(() -> {
+            var saved = bookService.save(Book.builder().title("As aventuras").author("Artur").isbn("9780306406157").build());
+            loanService.save(Loan.builder()
+                    .book(saved)
+                    .customer("Fulano")
+                    .email("fulano@email.com")
+                    .loanDate(LocalDate.now())
+                    .build());
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve obter os detalhes de um livro e responder 304 para o mesmo ETag.")
+    public void getBookDetailsTest() {
+        var etag = client.get().uri(BOOK_API + "/" + book.getId() + "?fields=title")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("title").isEqualTo("As aventuras")
+                .jsonPath("author").doesNotExist()
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        client.get().uri(BOOK_API + "/" + book.getId() + "?fields=title")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        client.get().uri(BOOK_API + "/" + book.getId() + "?fields=title")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.valueOf("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o request id, o rate limit e o limite de concorrência da pilha servlet.")
+    public void filtersTest() {
+        var limited = meterRegistry.get("http.ratelimit.requests")
+                .tag("endpoint", "GET /api/books").tag("outcome", "allowed").counter().count();
+        var accepted = meterRegistry.get("http.concurrency.requests").tag("outcome", "accepted").counter().count();
+
+        client.get().uri(BOOK_API + "?title=aventuras&page=0&size=10")
+                .header(RequestIdFilter.REQUEST_ID_HEADER, "reativo-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(RequestIdFilter.REQUEST_ID_HEADER, "reativo-1");
+
+        assertThat(meterRegistry.get("http.ratelimit.requests")
+                .tag("endpoint", "GET /api/books").tag("outcome", "allowed").counter().count()).isEqualTo(limited + 1);
+        assertThat(meterRegistry.get("http.concurrency.requests").tag("outcome", "accepted").counter().count())
+                .isEqualTo(accepted + 1);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 para um livro inexistente.")
+    public void bookNotFoundTest() {
+        client.get().uri(BOOK_API + "/9999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros no mesmo envelope de paginação da API servlet.")
+    public void findBooksTest() {
+        client.get().uri(BOOK_API + "?title=aventuras&page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content[0].isbn").isEqualTo("9780306406157")
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("size").isEqualTo(10)
+                .jsonPath("number").isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve transmitir a listagem de livros como NDJSON.")
+    public void streamBooksTest() {
+        var books = client.get().uri(BOOK_API + "?author=artur")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BookDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(books).extracting(BookDTO::getIsbn).containsExactly("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve obter vários livros por ISBN mantendo a ordem pedida.")
+    public void getBooksByIsbnsTest() {
+        client.get().uri(BOOK_API + "?isbns=9780000000019,978-0-306-40615-7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("[0].found").isEqualTo(false)
+                .jsonPath("[1].found").isEqualTo(true)
+                .jsonPath("[1].book.id").isEqualTo(book.getId());
+    }
+
+    @Test
+    @DisplayName("Deve listar os empréstimos filtrados por ISBN.")
+    public void findLoansTest() {
+        client.get().uri(LOAN_API + "?isbn=9780306406157&page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content[0].customer").isEqualTo("Fulano")
+                .jsonPath("content[0].book.isbn").isEqualTo("9780306406157")
+                .jsonPath("totalElements").isEqualTo(1);
+
+        client.get().uri(BOOK_API + "/" + book.getId() + "/loans?fields=id,customer")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content[0].customer").isEqualTo("Fulano")
+                .jsonPath("content[0].book").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Deve retornar as mensagens de validação ao criar um livro inválido.")
+    public void createInvalidBookTest() {
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(3);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.libraryapi.api.resource;
+
+import com.example.libraryapi.api.dto.LoanFilterDTO;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sem open-session-in-view, o que os serviços devolvem é usado depois de a transação terminar.
+ * Qualquer acesso a uma associação não carregada falha com {@code LazyInitializationException}.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.boot.admin.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:read-model-test;DB_CLOSE_DELAY=-1"
+})
+public class ReadModelTest {
+
+    private static final String ISBN = "9780306406157";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private LoanService loanService;
+
+    private Book book;
+
+    @BeforeEach
+    public void setUp() {
+        book = bookService.getBookByIsbn(ISBN).orElseGet(() -> {
+            var saved = bookService.save(Book.builder().title("As aventuras").author("Artur").isbn(ISBN).build());
+            loanService.save(Loan.builder()
+                    .book(saved)
+                    .customer("Fulano")
+                    .email("fulano@email.com")
+                    .loanDate(LocalDate.now())
+                    .build());
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve manter o open-session-in-view desativado.")
+    public void openInViewDisabledTest() {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve devolver os empréstimos com o livro já carregado.")
+    public void loansWithBookLoadedTest() {
+        //execução
+        var loans = loanService.find(LoanFilterDTO.builder().isbn(ISBN).build(), PageRequest.of(0, 10));
+        var byBook = loanService.getLoansByBook(book, PageRequest.of(0, 10));
+
+        //verificação
+        var util = entityManagerFactory.getPersistenceUnitUtil();
+        assertThat(loans.getContent()).isNotEmpty().allMatch(loan -> util.isLoaded(loan, "book"));
+        assertThat(byBook.getContent()).isNotEmpty().allMatch(loan -> util.isLoaded(loan, "book"));
+        assertThat(loans.getContent().get(0).getBook().getIsbn()).isEqualTo(ISBN);
+    }
+
+    @Test
+    @DisplayName("Deve comparar e imprimir livros sem inicializar a coleção de empréstimos.")
+    public void bookWithoutLoansTest() {
+        //execução
+        var found = bookService.getById(book.getId()).orElseThrow();
+
+        //verificação
+        assertThat(entityManagerFactory.getPersistenceUnitUtil().isLoaded(found, "loans")).isFalse();
+        assertThatCode(() -> {
+            found.hashCode();
+            found.toString();
+            found.equals(book);
+        }).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Deve listar os empréstimos pela API sem sessão aberta na requisição.")
+    public void findLoansTest() throws Exception {
+        mvc.perform(get("/api/loans?isbn=" + ISBN + "&page=0&size=10&fields=id,isbn,book").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].isbn").value(ISBN))
+                .andExpect(jsonPath("content[0].book.title").value("As aventuras"));
+
+        mvc.perform(get("/api/books/" + book.getId() + "/loans?page=0&size=10&fields=id,book").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].book.isbn").value(ISBN));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.libraryapi.benchmark;
+
+import com.example.libraryapi.service.support.PrefixIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {
+            "senhor", "aneis", "aventuras", "casmurro", "memorias", "postumas", "sertao", "veredas",
+            "capitaes", "areia", "vidas", "secas", "hora", "estrela", "cortico", "iracema"
+    };
+
+    @Param({"100000"})
+    public int books;
+
+    @Param({"a", "ave", "memorias p"})
+    public String query;
+
+    private final PrefixIndex index = new PrefixIndex("benchmark");
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        for (long id = 0; id < books; id++) {
+            var title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            index.put(id, Map.of("title", title, "author", "Autor " + (id % 5000)));
+        }
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Suggestion> suggest() {
+        return index.suggest(query, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AutocompleteBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
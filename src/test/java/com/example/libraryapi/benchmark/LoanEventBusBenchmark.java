@@ -0,0 +1,72 @@
+package com.example.libraryapi.benchmark;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.service.event.LoanEvent;
+import com.example.libraryapi.service.event.LoanEventBus;
+import com.example.libraryapi.service.event.LoanEventHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de publicar um evento de empréstimo a partir de várias threads. Com {@code -prof gc},
+ * {@code gc.alloc.rate.norm} deve ficar em zero: a publicação só preenche slots pré-alocados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class LoanEventBusBenchmark {
+
+    private final Loan loan = Loan.builder()
+            .id(1L)
+            .customer("Fulano")
+            .email("fulano@email.com")
+            .book(Book.builder().id(1L).isbn("9780306406157").build())
+            .build();
+
+    private LoanEventBus bus;
+
+    @Setup
+    public void setUp() {
+        LoanEventHandler handler = new LoanEventHandler() {
+            @Override
+            public String getName() {
+                return "benchmark";
+            }
+
+            @Override
+            public void onEvent(LoanEvent event, boolean endOfBatch) {
+            }
+        };
+
+        bus = new LoanEventBus(4096, List.of(handler), Duration.ofSeconds(5));
+        bus.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bus.stop();
+    }
+
+    @Benchmark
+    public void publish() {
+        bus.publish(LoanEvent.Type.CREATED, loan);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoanEventBusBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.libraryapi.benchmark;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.LoanDTO;
+import com.example.libraryapi.api.dto.PageResponse;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara o envelope {@link PageResponse} com o {@code PageImpl} de DTOs usado anteriormente nas
+ * listagens. Execute com o profiler {@code gc} (padrão do perfil {@code benchmark}) para comparar
+ * {@code gc.alloc.rate.norm}, os bytes alocados por resposta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageEnvelopeBenchmark {
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private final ObjectWriter writer = new ObjectMapper().writer();
+    private Page<Loan> page;
+
+    @Setup
+    public void setUp() {
+        var content = new ArrayList<Loan>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            var book = Book.builder()
+                    .id((long) i)
+                    .title("As Aventuras " + i)
+                    .author("Autor " + (i % 50))
+                    .isbn(String.format("978%010d", i))
+                    .build();
+            content.add(Loan.builder()
+                    .id((long) i)
+                    .book(book)
+                    .customer("Cliente " + i)
+                    .email("cliente" + i + "@email.com")
+                    .loanDate(LocalDate.now())
+                    .build());
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10L * pageSize);
+    }
+
+    @Benchmark
+    public void pageImpl() throws IOException {
+        var list = page.getContent()
+                .stream()
+                .map(PageEnvelopeBenchmark::toDTO)
+                .collect(Collectors.toList());
+
+        writer.writeValue(OutputStream.nullOutputStream(), new PageImpl<>(list, page.getPageable(), page.getTotalElements()));
+    }
+
+    @Benchmark
+    public void pageResponse() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), PageResponse.of(page, PageEnvelopeBenchmark::toDTO));
+    }
+
+    private static LoanDTO toDTO(Loan loan) {
+        var book = loan.getBook();
+        return LoanDTO.builder()
+                .id(loan.getId())
+                .isbn(book.getIsbn())
+                .customer(loan.getCustomer())
+                .email(loan.getEmail())
+                .book(BookDTO.builder()
+                        .id(book.getId())
+                        .title(book.getTitle())
+                        .author(book.getAuthor())
+                        .isbn(book.getIsbn())
+                        .build())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageEnvelopeBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.libraryapi.benchmark;
+
+import com.example.libraryapi.api.dto.BookDTO;
+import com.example.libraryapi.api.dto.LoanDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public String format;
+
+    private ObjectWriter writer;
+    private Page<LoanDTO> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        switch (format) {
+            case "CBOR":
+                writer = new ObjectMapper(new CBORFactory()).writer();
+                break;
+            case "SMILE":
+                writer = new ObjectMapper(new SmileFactory()).writer();
+                break;
+            default:
+                writer = new ObjectMapper().writer();
+        }
+
+        var content = new ArrayList<LoanDTO>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            var book = BookDTO.builder()
+                    .id((long) i)
+                    .title("As Aventuras " + i)
+                    .author("Autor " + (i % 50))
+                    .isbn(String.format("978%010d", i))
+                    .build();
+            content.add(LoanDTO.builder()
+                    .id((long) i)
+                    .isbn(book.getIsbn())
+                    .customer("Cliente " + i)
+                    .email("cliente" + i + "@email.com")
+                    .book(book)
+                    .build());
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, PAGE_SIZE), 10 * PAGE_SIZE);
+
+        System.out.printf("%n%s payload for %d loans: %d bytes%n", format, PAGE_SIZE, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageSerializationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.libraryapi.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import com.example.libraryapi.api.filter.RequestIdFilter;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.resource.BookController;
+import com.example.libraryapi.config.logging.JsonLayout;
+import com.example.libraryapi.config.logging.RingBufferAppender;
+import com.example.libraryapi.service.BookService;
+import org.mockito.Mockito;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class RequestLoggingBenchmark {
+
+    @Param({"OFF", "SYNC", "ASYNC"})
+    public String logging;
+
+    private MockMvc mvc;
+    private File logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = File.createTempFile("request-logging-benchmark", ".log");
+        configureLogging();
+
+        var service = Mockito.mock(BookService.class);
+        given(service.getById(anyLong()))
+                .willReturn(Optional.of(Book.builder().id(1L).title("As Aventuras").author("Artur").isbn("001").build()));
+
+        var controller = new BookController();
+        ReflectionTestUtils.setField(controller, "service", service);
+        ReflectionTestUtils.setField(controller, "modelMapper", new ModelMapper());
+
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new RequestIdFilter())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public MvcResult getBook() throws Exception {
+        return mvc.perform(get("/api/books/1")).andReturn();
+    }
+
+    private void configureLogging() {
+        var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.OFF);
+
+        if ("OFF".equals(logging)) {
+            return;
+        }
+
+        var layout = new JsonLayout();
+        layout.setContext(context);
+        layout.start();
+
+        var encoder = new LayoutWrappingEncoder<ILoggingEvent>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        encoder.start();
+
+        var file = new FileAppender<ILoggingEvent>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if ("ASYNC".equals(logging)) {
+            var async = new RingBufferAppender();
+            async.setContext(context);
+            async.setName("ASYNC_FILE");
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+
+        var logger = context.getLogger(BookController.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestLoggingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.libraryapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PlatformExecutorTest {
+
+    private final PlatformExecutor executor = new PlatformExecutor("teste-", 1);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar na própria thread quando chamado de uma thread de plataforma.")
+    public void platformCallerTest() {
+        //cenário
+        var caller = Thread.currentThread();
+        var executed = new Thread[1];
+
+        //execução
+        executor.run(() -> executed[0] = Thread.currentThread());
+
+        //verificação
+        assertThat(executed[0]).isSameAs(caller);
+    }
+
+    @Test
+    @DisplayName("Deve relançar a exceção da tarefa para quem chamou.")
+    public void exceptionTest() {
+        //execução
+        var exception = catchThrowable(() -> executor.run(() -> {
+            throw new IllegalStateException("falha no envio");
+        }));
+
+        //verificação
+        assertThat(exception).isInstanceOf(IllegalStateException.class).hasMessage("falha no envio");
+    }
+
+    @Test
+    @DisplayName("Deve executar em uma thread de plataforma do pool quando chamado de uma thread virtual.")
+    public void virtualCallerTest() throws Exception {
+        //cenário
+        var factory = VirtualThreads.factory("virtual-");
+        if (factory.isEmpty()) {
+            return;
+        }
+        var executed = new CompletableFuture<Thread>();
+
+        //execução
+        factory.get().newThread(() -> executor.run(() -> executed.complete(Thread.currentThread()))).start();
+
+        //verificação
+        var thread = executed.get(5, TimeUnit.SECONDS);
+        assertThat(thread.getName()).startsWith("teste-");
+        assertThat(VirtualThreads.isVirtual(thread)).isFalse();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupConfigTest {
+
+    @Test
+    @DisplayName("Deve adiar a criação dos beans declarados pelos pacotes configurados.")
+    public void lazyBeansTest() {
+        //cenário
+        var environment = new MockEnvironment()
+                .withProperty("application.startup.lazy-beans", "com.example.libraryapi.config.SwaggerConfig");
+
+        //execução
+        try (var context = createContext(environment)) {
+            var beanFactory = context.getBeanFactory();
+
+            //verificação
+            assertThat(beanFactory.getBeanDefinition("springShopOpenAPI").isLazyInit()).isTrue();
+            assertThat(beanFactory.containsSingleton("springShopOpenAPI")).isFalse();
+            assertThat(beanFactory.containsSingleton("startupConfig")).isTrue();
+
+            context.getBean("springShopOpenAPI");
+            assertThat(beanFactory.containsSingleton("springShopOpenAPI")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve alterar os beans quando nenhum pacote for configurado.")
+    public void noLazyBeansTest() {
+        //execução
+        try (var context = createContext(new MockEnvironment())) {
+            //verificação
+            assertThat(context.getBeanFactory().getBeanDefinition("springShopOpenAPI").isLazyInit()).isFalse();
+            assertThat(context.getBeanFactory().containsSingleton("springShopOpenAPI")).isTrue();
+        }
+    }
+
+    private AnnotationConfigApplicationContext createContext(MockEnvironment environment) {
+        var context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        context.register(StartupConfig.class, SwaggerConfig.class);
+        context.refresh();
+        return context;
+    }
+}
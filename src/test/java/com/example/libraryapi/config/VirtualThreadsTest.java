@@ -0,0 +1,27 @@
+package com.example.libraryapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsTest {
+
+    @Test
+    @DisplayName("Deve oferecer threads virtuais somente em JVMs que as suportam.")
+    public void factoryAvailabilityTest() throws Exception {
+        //execução
+        var factory = VirtualThreads.factory("teste-");
+
+        //verificação
+        assertThat(factory.isPresent()).isEqualTo(Runtime.version().feature() >= 21);
+        if (factory.isPresent()) {
+            var name = new CompletableFuture<String>();
+            factory.get().newThread(() -> name.complete(Thread.currentThread().getName())).start();
+            assertThat(name.get(5, TimeUnit.SECONDS)).isEqualTo("teste-0");
+        }
+    }
+}
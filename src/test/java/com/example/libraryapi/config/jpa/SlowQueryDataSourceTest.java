@@ -0,0 +1,114 @@
+package com.example.libraryapi.config.jpa;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SlowQueryDataSourceTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryDataSource.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o SQL, os parâmetros e o chamador das consultas acima do limite.")
+    public void logSlowQueryTest() throws SQLException {
+        //cenário
+        var dataSource = new SlowQueryDataSource(createDataSource(), Duration.ZERO);
+
+        //execução
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("select ? as isbn")) {
+            statement.setString(1, "123");
+            statement.executeQuery().close();
+        }
+
+        //verificação
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .contains("select ? as isbn")
+                .contains("[123]")
+                .contains(SlowQueryDataSourceTest.class.getName());
+    }
+
+    @Test
+    @DisplayName("Deve registrar null para parâmetros nulos e os parâmetros de cada item do lote.")
+    public void logNullAndBatchParametersTest() throws SQLException {
+        //cenário
+        var dataSource = new SlowQueryDataSource(createDataSource(), Duration.ZERO);
+
+        //execução
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("select ? as isbn, ? as title")) {
+            statement.setString(1, "123");
+            statement.setNull(2, Types.VARCHAR);
+            statement.executeQuery().close();
+        }
+        try (var connection = dataSource.getConnection()) {
+            try (var create = connection.createStatement()) {
+                create.execute("create table if not exists slow_batch (isbn varchar(20))");
+            }
+            try (var statement = connection.prepareStatement("insert into slow_batch (isbn) values (?)")) {
+                statement.setString(1, "456");
+                statement.addBatch();
+                statement.setString(1, "789");
+                statement.addBatch();
+                statement.executeBatch();
+            }
+        }
+
+        //verificação
+        assertThat(appender.list).hasSize(3);
+        assertThat(appender.list.get(0).getFormattedMessage()).contains("PARAMETERS: [123, null]");
+        assertThat(appender.list.get(2).getFormattedMessage())
+                .contains("insert into slow_batch")
+                .contains("PARAMETERS: [[456], [789]]");
+    }
+
+    @Test
+    @DisplayName("Não deve registrar consultas abaixo do limite.")
+    public void ignoreFastQueryTest() throws SQLException {
+        //cenário
+        var dataSource = new SlowQueryDataSource(createDataSource(), Duration.ofMinutes(1));
+
+        //execução
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+
+        //verificação
+        assertThat(appender.list).isEmpty();
+    }
+
+    private DriverManagerDataSource createDataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:slowquery");
+    }
+}
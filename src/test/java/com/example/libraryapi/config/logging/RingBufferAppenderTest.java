@@ -0,0 +1,141 @@
+package com.example.libraryapi.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RingBufferAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @AfterEach
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("Deve repassar os eventos para o appender anexado em background.")
+    public void appendAsynchronouslyTest() {
+        //cenário
+        var target = new CollectingAppender(new CountDownLatch(0));
+        var appender = createAppender(target, 16, RingBufferAppender.OverflowPolicy.DROP);
+
+        //execução
+        appender.doAppend(createEvent("primeiro"));
+        appender.doAppend(createEvent("segundo"));
+        appender.stop();
+
+        //verificação
+        assertThat(target.events)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("primeiro", "segundo");
+        assertThat(appender.getDroppedEvents()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve descartar e contabilizar eventos quando o buffer estiver cheio.")
+    public void dropWhenFullTest() {
+        //cenário
+        var release = new CountDownLatch(1);
+        var target = new CollectingAppender(release);
+        var appender = createAppender(target, 4, RingBufferAppender.OverflowPolicy.DROP);
+
+        //execução
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(createEvent("evento " + i));
+        }
+        release.countDown();
+        appender.stop();
+
+        //verificação
+        assertThat(appender.getDroppedEvents()).isPositive();
+        assertThat(target.events.size() + appender.getDroppedEvents()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Deve formatar o evento como JSON com os campos do MDC.")
+    public void jsonLayoutTest() {
+        //cenário
+        var layout = new JsonLayout();
+        var event = createEvent("linha \"um\"\ndois", Map.of("requestId", "abc-123"));
+
+        //execução
+        var json = layout.doLayout(event);
+
+        //verificação
+        assertThat(json)
+                .contains("\"level\":\"INFO\"")
+                .contains("\"message\":\"linha \\\"um\\\"\\ndois\"")
+                .contains("\"requestId\":\"abc-123\"");
+    }
+
+    private RingBufferAppender createAppender(CollectingAppender target, int capacity,
+                                              RingBufferAppender.OverflowPolicy policy) {
+        target.setContext(context);
+        target.start();
+
+        var appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setCapacity(capacity);
+        appender.setOverflowPolicy(policy);
+        appender.addAppender(target);
+        appender.start();
+
+        return appender;
+    }
+
+    private LoggingEvent createEvent(String message) {
+        return createEvent(message, Collections.emptyMap());
+    }
+
+    private LoggingEvent createEvent(String message, Map<String, String> mdc) {
+        var event = new LoggingEvent();
+        event.setLoggerName("test");
+        event.setLevel(Level.INFO);
+        event.setMessage(message);
+        event.setThreadName("main");
+        event.setTimeStamp(System.currentTimeMillis());
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+
+    private static class CollectingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        private CollectingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.libraryapi.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public void record(int status, long latencyNanos) {
+        requests.increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        latencies.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+    }
+
+    /**
+     * Chegada planejada que não virou requisição por falta de estado (nenhum livro livre para
+     * emprestar, nenhum empréstimo para devolver).
+     */
+    public void skip() {
+        skipped.increment();
+    }
+
+    public void reset() {
+        latencies.reset();
+        requests.reset();
+        errors.reset();
+        skipped.reset();
+        statuses.clear();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public Map<String, Object> report(double seconds) {
+        var percentiles = new LinkedHashMap<String, Object>();
+        percentiles.put("mean", toMillis(latencies.getMean()));
+        percentiles.put("p50", toMillis(latencies.getValueAtPercentile(50)));
+        percentiles.put("p90", toMillis(latencies.getValueAtPercentile(90)));
+        percentiles.put("p99", toMillis(latencies.getValueAtPercentile(99)));
+        percentiles.put("p999", toMillis(latencies.getValueAtPercentile(99.9)));
+        percentiles.put("max", toMillis(latencies.getMaxValue()));
+
+        var statusCounts = new LinkedHashMap<String, Object>();
+        statuses.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> statusCounts.put(String.valueOf(entry.getKey()), entry.getValue().sum()));
+
+        var result = new LinkedHashMap<String, Object>();
+        result.put("requests", requests.sum());
+        result.put("errors", errors.sum());
+        result.put("skipped", skipped.sum());
+        result.put("throughput", requests.sum() / seconds);
+        result.put("statuses", statusCounts);
+        result.put("latencyMillis", percentiles);
+
+        return result;
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.libraryapi.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Executa o {@link LoadTest} com a mesma carga em cada modo de execução (threads de plataforma e
+ * threads virtuais) e grava os relatórios lado a lado. Em JVMs sem threads virtuais o segundo
+ * cenário roda com threads de plataforma, conforme o aviso registrado na inicialização.
+ *
+ * <p>Cada modo roda em uma JVM nova, para que o JIT, o heap e os pools aquecidos pelo primeiro não
+ * favoreçam o segundo. As JVMs sobem com {@code -Djdk.tracePinnedThreads=full}; os frames que
+ * prenderam threads virtuais segurando um monitor entram no relatório em {@code pinnedMonitors}, e a
+ * saída completa de cada modo fica em {@code load-test-<modo>.log}.
+ *
+ * <pre>mvn -Pload-test verify -DskipTests -Dload.main=com.example.libraryapi.loadtest.ExecutionModeComparison -Dload.args="--rate=800 --duration=60s"</pre>
+ */
+public class ExecutionModeComparison {
+
+    private static final String PINNED_FRAME = "<== monitors";
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        var mapper = new ObjectMapper();
+        var reports = new LinkedHashMap<String, Object>();
+
+        for (var mode : new String[]{"platform", "virtual"}) {
+            var output = options.getOutput().resolveSibling("load-test-" + mode + ".json");
+            var log = options.getOutput().resolveSibling("load-test-" + mode + ".log");
+
+            var pinnedMonitors = fork(mode, args, output, log);
+            var report = mapper.readValue(output.toFile(), new TypeReference<Map<String, Object>>() { });
+            report.put("pinnedMonitors", pinnedMonitors);
+
+            reports.put(mode, report);
+            System.out.printf("%-8s throughput=%.1f req/s p99(get)=%s ms pinned=%d%n", mode, report.get("throughput"),
+                    latency(report, "get", "p99"), pinnedMonitors.size());
+        }
+
+        var output = options.getOutput().resolveSibling("execution-modes.json");
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(reports));
+    }
+
+    /**
+     * Roda o {@link LoadTest} em outra JVM com o mesmo classpath e devolve os frames distintos que
+     * seguravam monitores quando uma thread virtual ficou presa.
+     */
+    private static List<String> fork(String mode, String[] args, Path output, Path log)
+            throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Djdk.tracePinnedThreads=full");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadTest.class.getName());
+        command.addAll(Arrays.asList(args));
+        command.add("--output=" + output);
+        command.add("--application.execution.mode=" + mode);
+
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        var exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("LoadTest no modo " + mode + " terminou com código " + exitCode + "; ver " + log);
+        }
+
+        try (var lines = Files.lines(log, StandardCharsets.ISO_8859_1)) {
+            return lines.filter(line -> line.contains(PINNED_FRAME))
+                    .map(String::trim)
+                    .distinct()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object latency(Map<String, Object> report, String endpoint, String percentile) {
+        var endpoints = (Map<String, Map<String, Object>>) report.get("endpoints");
+        return ((Map<String, Object>) endpoints.get(endpoint).get("latencyMillis")).get(percentile);
+    }
+}
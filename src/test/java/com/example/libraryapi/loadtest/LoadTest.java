@@ -0,0 +1,315 @@
+package com.example.libraryapi.loadtest;
+
+import com.example.libraryapi.LibraryApiApplication;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.loadtest.LoadTestOptions.Operation;
+import com.example.libraryapi.service.BookService;
+import com.example.libraryapi.service.LoanService;
+import com.example.libraryapi.service.support.ScalableBloomFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Sobe a aplicação com o banco embarcado, popula livros e empréstimos e dispara uma mistura
+ * configurável de requisições em modelo aberto (chegadas de Poisson). A latência é medida a
+ * partir do instante planejado de cada requisição, evitando coordinated omission. O relatório
+ * inclui o uso do pool de conexões JDBC ({@link PoolStats}) durante a janela medida.
+ *
+ * <pre>mvn -Pload-test verify -DskipTests -Dload.args="--rate=500 --duration=60s --mix=get:60,find:20,loan:10,return:10"</pre>
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<String> availableIsbns = new ConcurrentLinkedQueue<>();
+    private final Map<Long, String> activeLoans = new ConcurrentHashMap<>();
+    private final AtomicLong isbnSequence = new AtomicLong();
+    private final AtomicLong maxBookId = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String baseUrl;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        for (var operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        var report = new LoadTest(options).run();
+
+        Files.createDirectories(options.getOutput().toAbsolutePath().getParent());
+        var json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        Files.writeString(options.getOutput(), json);
+
+        System.out.println(json);
+    }
+
+    public Map<String, Object> run() throws InterruptedException {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        var applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.boot.admin.client.enabled=false",
+                "--logging.level.root=WARN"));
+        if (options.getApplicationArgs().stream().noneMatch(arg -> arg.startsWith("--application.rate-limit.enabled"))) {
+            applicationArgs.add("--application.rate-limit.enabled=false");
+        }
+        applicationArgs.addAll(options.getApplicationArgs());
+
+        try (var context = SpringApplication.run(LibraryApiApplication.class, applicationArgs.toArray(String[]::new))) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            seed(context);
+
+            drive(options.getWarmup());
+            stats.values().forEach(EndpointStats::reset);
+
+            var pool = new PoolStats(context.getBean(MeterRegistry.class));
+            pool.start();
+            var start = System.nanoTime();
+            drive(options.getDuration());
+            var seconds = (System.nanoTime() - start) / 1e9;
+            pool.stop();
+
+            return report(seconds, pool);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        var bookService = context.getBean(BookService.class);
+        var loanService = context.getBean(LoanService.class);
+        var books = new ArrayList<Book>(options.getBooks());
+
+        for (int i = 0; i < options.getBooks(); i++) {
+            var book = bookService.save(Book.builder()
+                    .title("Livro " + i)
+                    .author("Autor " + (i % 100))
+                    .isbn(nextIsbn())
+                    .build());
+            books.add(book);
+            maxBookId.accumulateAndGet(book.getId(), Math::max);
+        }
+
+        for (int i = 0; i < books.size(); i++) {
+            var book = books.get(i);
+            if (i < options.getLoans()) {
+                var loan = loanService.save(Loan.builder()
+                        .book(book)
+                        .customer("Cliente " + i)
+                        .email("cliente" + i + "@email.com")
+                        .loanDate(LocalDate.now())
+                        .build());
+                activeLoans.put(loan.getId(), book.getIsbn());
+            } else {
+                availableIsbns.add(book.getIsbn());
+            }
+        }
+
+        var isbnFilter = context.getBean(ScalableBloomFilter.class);
+        log.warn("SEEDED {} BOOKS AND {} LOANS ({} ISBN EXISTENCE QUERIES SAVED, {} FALSE POSITIVES)",
+                options.getBooks(), options.getLoans(), isbnFilter.getAbsentCount(), isbnFilter.getFalsePositiveCount());
+    }
+
+    private void drive(Duration duration) throws InterruptedException {
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        var pending = ConcurrentHashMap.<CompletableFuture<?>>newKeySet();
+        var start = System.nanoTime();
+        var end = start + duration.toNanos();
+        var intendedStart = (double) start;
+
+        while (intendedStart < end) {
+            var wait = (long) intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            var future = dispatch(nextOperation(), (long) intendedStart);
+            pending.add(future);
+            future.whenComplete((result, error) -> pending.remove(future));
+
+            intendedStart += -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos;
+        }
+
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .completeOnTimeout(null, REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS)
+                .join();
+    }
+
+    private CompletableFuture<?> dispatch(Operation operation, long intendedStart) {
+        var random = ThreadLocalRandom.current();
+
+        switch (operation) {
+            case CREATE:
+                return send(operation, intendedStart, post("/api/books", Map.of(
+                        "title", "Livro novo " + random.nextInt(1_000_000),
+                        "author", "Autor " + random.nextInt(100),
+                        "isbn", nextIsbn())), null);
+            case FIND:
+                return send(operation, intendedStart, get("/api/books?title=Livro%20" + random.nextInt(100)
+                        + "&page=0&size=20"), null);
+            case LOAN:
+                var isbn = availableIsbns.poll();
+                if (isbn == null) {
+                    return skip(operation);
+                }
+                return send(operation, intendedStart,
+                        post("/api/loans", Map.of("isbn", isbn, "customer", "Cliente " + random.nextInt(10_000))),
+                        response -> {
+                            if (response.statusCode() == 201) {
+                                activeLoans.put(Long.parseLong(response.body().trim()), isbn);
+                            } else {
+                                availableIsbns.add(isbn);
+                            }
+                        });
+            case RETURN:
+                var loanId = activeLoans.keySet().stream().findAny().orElse(null);
+                var returnedIsbn = loanId == null ? null : activeLoans.remove(loanId);
+                if (returnedIsbn == null) {
+                    return skip(operation);
+                }
+                return send(operation, intendedStart,
+                        json("/api/loans/" + loanId, "PATCH", Map.of("returned", true)),
+                        response -> {
+                            if (response.statusCode() == 200) {
+                                availableIsbns.add(returnedIsbn);
+                            } else {
+                                activeLoans.put(loanId, returnedIsbn);
+                            }
+                        });
+            default:
+                var books = maxBookId.get();
+                if (books == 0) {
+                    return skip(operation);
+                }
+                return send(operation, intendedStart, get("/api/books/" + (1 + random.nextLong(books))), null);
+        }
+    }
+
+    /**
+     * Conta a chegada como ignorada na própria operação, em vez de trocá-la por outra e distorcer a
+     * mistura e as estatísticas por endpoint.
+     */
+    private CompletableFuture<?> skip(Operation operation) {
+        stats.get(operation).skip();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<?> send(Operation operation, long intendedStart, HttpRequest request,
+                                      Consumer<HttpResponse<String>> onResponse) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    var status = error == null ? response.statusCode() : 0;
+                    stats.get(operation).record(status, System.nanoTime() - intendedStart);
+
+                    if (response != null && onResponse != null) {
+                        onResponse.accept(response);
+                    }
+                });
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return json(path, "POST", body);
+    }
+
+    private HttpRequest json(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Operation nextOperation() {
+        var total = options.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        var choice = ThreadLocalRandom.current().nextInt(total);
+
+        for (var entry : options.getMix().entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+
+        return Operation.GET;
+    }
+
+    private String nextIsbn() {
+        var digits = String.format("978%09d", isbnSequence.incrementAndGet());
+        var sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private Map<String, Object> report(double seconds, PoolStats pool) {
+        var endpoints = new LinkedHashMap<String, Object>();
+        stats.forEach((operation, endpointStats) ->
+                endpoints.put(operation.name().toLowerCase(), endpointStats.report(seconds)));
+
+        var configuration = new LinkedHashMap<String, Object>();
+        configuration.put("books", options.getBooks());
+        configuration.put("loans", options.getLoans());
+        configuration.put("rate", options.getRate());
+        configuration.put("warmup", options.getWarmup().toString());
+        configuration.put("duration", options.getDuration().toString());
+        configuration.put("mix", options.getMix());
+        configuration.put("applicationArgs", options.getApplicationArgs());
+
+        var result = new LinkedHashMap<String, Object>();
+        result.put("configuration", configuration);
+        result.put("seconds", seconds);
+        result.put("throughput", stats.values().stream().mapToLong(EndpointStats::getRequests).sum() / seconds);
+        result.put("endpoints", endpoints);
+        result.put("pool", pool.report());
+
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.libraryapi.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class LoadTestOptions {
+
+    private int books = 1000;
+    private int loans = 200;
+    private double rate = 200;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Path output = Path.of("target", "load-test.json");
+    private final Map<Operation, Integer> mix = new EnumMap<>(Map.of(
+            Operation.CREATE, 5,
+            Operation.FIND, 30,
+            Operation.GET, 40,
+            Operation.LOAN, 15,
+            Operation.RETURN, 10));
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        var options = new LoadTestOptions();
+
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+
+            var name = arg.substring(2, separator);
+            var value = arg.substring(separator + 1);
+
+            switch (name) {
+                case "books":
+                    options.books = Integer.parseInt(value);
+                    break;
+                case "loans":
+                    options.loans = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    options.rate = Double.parseDouble(value);
+                    break;
+                case "warmup":
+                    options.warmup = Duration.parse("PT" + value.toUpperCase());
+                    break;
+                case "duration":
+                    options.duration = Duration.parse("PT" + value.toUpperCase());
+                    break;
+                case "output":
+                    options.output = Path.of(value);
+                    break;
+                case "mix":
+                    options.mix.clear();
+                    for (var entry : value.split(",")) {
+                        var parts = entry.split(":");
+                        options.mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+                    }
+                    break;
+                default:
+                    options.applicationArgs.add(arg);
+            }
+        }
+
+        if (options.loans > options.books) {
+            throw new IllegalArgumentException("O número de empréstimos não pode ser maior que o de livros.");
+        }
+
+        return options;
+    }
+
+    public enum Operation {
+        CREATE,
+        FIND,
+        GET,
+        LOAN,
+        RETURN
+    }
+}
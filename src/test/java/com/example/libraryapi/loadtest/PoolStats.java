@@ -0,0 +1,113 @@
+package com.example.libraryapi.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uso do pool de conexões JDBC durante a janela medida, a partir das métricas do Hikari:
+ * tempo em que cada conexão fica emprestada ({@code hikaricp.connections.usage}), espera para
+ * obtê-la ({@code hikaricp.connections.acquire}) e amostras periódicas de conexões ativas e
+ * threads aguardando.
+ */
+public class PoolStats {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final MeterRegistry registry;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "pool-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TimerSnapshot usage;
+    private TimerSnapshot acquire;
+    private long samples;
+    private double activeSum;
+    private double activeMax;
+    private double pendingMax;
+
+    public PoolStats(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void start() {
+        usage = TimerSnapshot.of(registry.find("hikaricp.connections.usage").timer());
+        acquire = TimerSnapshot.of(registry.find("hikaricp.connections.acquire").timer());
+        sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() throws InterruptedException {
+        sampler.shutdown();
+        sampler.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    public Map<String, Object> report() {
+        var usageDelta = usage.delta(registry.find("hikaricp.connections.usage").timer());
+        var acquireDelta = acquire.delta(registry.find("hikaricp.connections.acquire").timer());
+
+        var result = new LinkedHashMap<String, Object>();
+        result.put("connections", usageDelta.count);
+        result.put("usageMeanMillis", usageDelta.meanMillis());
+        result.put("usageMaxMillis", maxMillis("hikaricp.connections.usage"));
+        result.put("acquireMeanMillis", acquireDelta.meanMillis());
+        result.put("acquireMaxMillis", maxMillis("hikaricp.connections.acquire"));
+        result.put("activeMean", samples == 0 ? 0 : round(activeSum / samples));
+        result.put("activeMax", activeMax);
+        result.put("pendingMax", pendingMax);
+
+        return result;
+    }
+
+    private synchronized void sample() {
+        var active = registry.find("hikaricp.connections.active").gauge();
+        var pending = registry.find("hikaricp.connections.pending").gauge();
+        if (active == null || pending == null) {
+            return;
+        }
+
+        samples++;
+        activeSum += active.value();
+        activeMax = Math.max(activeMax, active.value());
+        pendingMax = Math.max(pendingMax, pending.value());
+    }
+
+    private double maxMillis(String name) {
+        var timer = registry.find(name).timer();
+        return timer == null ? 0 : round(timer.max(TimeUnit.MILLISECONDS));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1_000.0) / 1_000.0;
+    }
+
+    private static final class TimerSnapshot {
+
+        private final long count;
+        private final double totalMillis;
+
+        private TimerSnapshot(long count, double totalMillis) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+        }
+
+        private static TimerSnapshot of(Timer timer) {
+            return timer == null ? new TimerSnapshot(0, 0) : new TimerSnapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+        }
+
+        private TimerSnapshot delta(Timer timer) {
+            var current = of(timer);
+            return new TimerSnapshot(current.count - count, current.totalMillis - totalMillis);
+        }
+
+        private double meanMillis() {
+            return count == 0 ? 0 : round(totalMillis / count);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.libraryapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mede o tempo até a aplicação ficar pronta ({@code /actuator/health/readiness} respondendo 200),
+ * contado desde a criação do processo da JVM, em três configurações:
+ *
+ * <ul>
+ *     <li>{@code default}: propriedades padrão;</li>
+ *     <li>{@code prod}: perfil {@code prod} (repositórios adiados, beans não críticos sob demanda);</li>
+ *     <li>{@code prod-cds}: perfil {@code prod} com o arquivo AppCDS da execução de treino, quando existir.</li>
+ * </ul>
+ *
+ * Cada rodada é um processo novo e as configurações são intercaladas. Com {@code --threshold} o
+ * benchmark termina com erro se a mediana da última configuração passar do limite, o que faz o
+ * build do perfil {@code startup} falhar em caso de regressão. O perfil passa o limite da
+ * propriedade {@code startup.threshold}.
+ *
+ * <pre>mvn -Pstartup verify -DskipTests -Dstartup.threshold=6s -Dstartup.args="--iterations=5"</pre>
+ */
+public class ReadinessBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final String classpath;
+    private final Path directory;
+
+    public ReadinessBenchmark(String classpath, Path directory) {
+        this.classpath = classpath;
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = null;
+        Path archive = null;
+        Duration threshold = null;
+        var iterations = 5;
+        var directory = Path.of("target", "startup");
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+
+            var value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "classpath":
+                    classpath = value;
+                    break;
+                case "archive":
+                    archive = Path.of(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "threshold":
+                    threshold = Duration.parse("PT" + value.toUpperCase());
+                    break;
+                case "directory":
+                    directory = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+        }
+        if (classpath == null) {
+            throw new IllegalArgumentException("Informe o classpath da aplicação com --classpath.");
+        }
+
+        var variants = new LinkedHashMap<String, List<String>>();
+        variants.put("default", List.of());
+        variants.put("prod", List.of("--spring.profiles.active=prod"));
+        if (archive != null && Files.exists(archive)) {
+            variants.put("prod-cds", List.of("-XX:SharedArchiveFile=" + archive.toAbsolutePath(),
+                    "--spring.profiles.active=prod"));
+        }
+
+        var benchmark = new ReadinessBenchmark(classpath, directory);
+        var runs = new LinkedHashMap<String, List<Long>>();
+        variants.keySet().forEach(variant -> runs.put(variant, new ArrayList<>()));
+        for (int i = 0; i < iterations; i++) {
+            for (var variant : variants.entrySet()) {
+                runs.get(variant.getKey()).add(benchmark.start(variant.getKey() + "-" + i, variant.getValue()));
+            }
+        }
+
+        var report = new LinkedHashMap<String, Object>();
+        report.put("iterations", iterations);
+        runs.forEach((variant, results) -> {
+            report.put(variant, Map.of("medianMillis", median(results), "runs", results));
+            System.out.printf("%-8s ready in %d ms (median)%n", variant, median(results));
+        });
+
+        var last = runs.keySet().stream().reduce((first, second) -> second).orElseThrow();
+        if (threshold != null) {
+            report.put("thresholdMillis", threshold.toMillis());
+        }
+        Files.writeString(directory.resolve("readiness.json"),
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        if (threshold != null && median(runs.get(last)) > threshold.toMillis()) {
+            System.err.printf("STARTUP REGRESSION: %s took %d ms, threshold is %d ms%n",
+                    last, median(runs.get(last)), threshold.toMillis());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sobe a aplicação em uma JVM nova e devolve os milissegundos até o probe de prontidão responder.
+     * Argumentos iniciados por {@code -X} vão para a JVM; os demais, para a aplicação.
+     */
+    private long start(String name, List<String> arguments) throws Exception {
+        var port = freePort();
+        var probe = URI.create("http://localhost:" + port + "/actuator/health/readiness");
+
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        arguments.stream().filter(argument -> argument.startsWith("-X")).forEach(command::add);
+        command.addAll(List.of("-cp", absolute(classpath), "com.example.libraryapi.LibraryApiApplication",
+                "--server.port=" + port,
+                "--management.endpoint.health.probes.enabled=true"));
+        arguments.stream().filter(argument -> argument.startsWith("--")).forEach(command::add);
+
+        Files.createDirectories(directory);
+        var log = directory.resolve(name + ".log");
+        var start = System.nanoTime();
+        var process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("A aplicação terminou antes de ficar pronta; veja " + log);
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("A aplicação não ficou pronta em " + TIMEOUT + "; veja " + log);
+                }
+
+                var response = get(probe);
+                if (response != null && response.statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private HttpResponse<Void> get(URI uri) {
+        try {
+            return client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(1)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * O processo roda no diretório do benchmark, então as entradas relativas do classpath são
+     * resolvidas a partir do diretório atual. Curingas ({@code lib/*}) são expandidos pela JVM.
+     */
+    private static String absolute(String classpath) {
+        return Arrays.stream(classpath.split(File.pathSeparator))
+                .map(entry -> Path.of(entry).toAbsolutePath().toString())
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static long median(List<Long> runs) {
+        var values = runs.stream().mapToLong(Long::longValue).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.libraryapi.loadtest;
+
+import com.example.libraryapi.LibraryApiApplication;
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mede o tempo até a primeira requisição com partida a frio (índices reconstruídos a partir do
+ * banco) e com partida a quente (índices carregados do snapshot do catálogo). Um banco H2 em
+ * arquivo é populado uma vez; cada rodada sobe a aplicação e registra, a partir do início de
+ * {@code SpringApplication.run}:
+ *
+ * <ul>
+ *     <li>{@code firstResponse}: primeira resposta HTTP 200;</li>
+ *     <li>{@code firstHit}: primeiro autocompletar que já encontra o livro procurado;</li>
+ *     <li>{@code ready}: retorno de {@code SpringApplication.run}.</li>
+ * </ul>
+ *
+ * As rodadas dos dois modos são intercaladas para que o aquecimento da JVM não favoreça um deles.
+ *
+ * <pre>mvn -Pload-test verify -DskipTests -Dload.main=com.example.libraryapi.loadtest.StartupBenchmark -Dload.args="--books=50000 --iterations=3"</pre>
+ */
+public class StartupBenchmark {
+
+    private static final Path DIRECTORY = Path.of("target", "startup-benchmark");
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    public static void main(String[] args) throws Exception {
+        var books = 20_000;
+        var iterations = 3;
+        for (var arg : args) {
+            if (arg.startsWith("--books=")) {
+                books = Integer.parseInt(arg.substring("--books=".length()));
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+            } else {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        var benchmark = new StartupBenchmark();
+        benchmark.seed(books);
+
+        var runs = new LinkedHashMap<String, List<Map<String, Long>>>();
+        runs.put("cold", new ArrayList<>());
+        runs.put("warm", new ArrayList<>());
+        for (int i = 0; i < iterations; i++) {
+            runs.get("cold").add(benchmark.start(false, books));
+            runs.get("warm").add(benchmark.start(true, books));
+        }
+
+        var report = new LinkedHashMap<String, Object>();
+        report.put("books", books);
+        report.put("iterations", iterations);
+        runs.forEach((mode, results) -> {
+            report.put(mode, Map.of("medianMillis", median(results), "runs", results));
+            System.out.printf("%-5s %s%n", mode, median(results));
+        });
+
+        var output = DIRECTORY.resolveSibling("startup.json");
+        Files.writeString(output, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    /**
+     * Popula o banco em arquivo; o encerramento do contexto grava o snapshot do catálogo.
+     */
+    private void seed(int books) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        try (var files = Files.list(DIRECTORY)) {
+            for (var file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+
+        try (var context = run(true, freePort())) {
+            var repository = context.getBean(BookRepository.class);
+            var batch = new ArrayList<Book>(1000);
+            for (int i = 1; i <= books; i++) {
+                var isbn = isbn(i);
+                batch.add(Book.builder()
+                        .title("Livro " + i)
+                        .author("Autor " + i)
+                        .isbn(isbn)
+                        .isbnKey(Long.parseLong(isbn))
+                        .build());
+                if (batch.size() == 1000 || i == books) {
+                    repository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private Map<String, Long> start(boolean snapshot, int books) throws Exception {
+        var port = freePort();
+        var probe = URI.create("http://localhost:" + port + "/api/books/autocomplete?q=autor%20" + books + "&limit=1");
+
+        var start = System.nanoTime();
+        var context = CompletableFuture.supplyAsync(() -> run(snapshot, port));
+        var firstResponse = -1L;
+        var firstHit = -1L;
+
+        try {
+            while (firstHit < 0) {
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("A aplicação não respondeu em " + TIMEOUT);
+                }
+
+                var response = get(probe);
+                if (response != null && response.statusCode() == 200) {
+                    var elapsed = System.nanoTime() - start;
+                    if (firstResponse < 0) {
+                        firstResponse = elapsed;
+                    }
+                    if (response.body().contains("Autor " + books)) {
+                        firstHit = elapsed;
+                    }
+                }
+                if (firstHit < 0) {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                }
+            }
+
+            context.join();
+            var ready = System.nanoTime() - start;
+
+            var result = new LinkedHashMap<String, Long>();
+            result.put("firstResponse", TimeUnit.NANOSECONDS.toMillis(firstResponse));
+            result.put("firstHit", TimeUnit.NANOSECONDS.toMillis(firstHit));
+            result.put("ready", TimeUnit.NANOSECONDS.toMillis(ready));
+            return result;
+        } finally {
+            context.join().close();
+        }
+    }
+
+    private ConfigurableApplicationContext run(boolean snapshot, int port) {
+        return SpringApplication.run(LibraryApiApplication.class,
+                "--server.port=" + port,
+                "--spring.boot.admin.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--application.rate-limit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:file:" + DIRECTORY.toAbsolutePath().resolve("library"),
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--application.books.snapshot.enabled=" + snapshot,
+                "--application.books.snapshot.path=" + DIRECTORY.resolve("catalog.snapshot"));
+    }
+
+    private HttpResponse<String> get(URI uri) {
+        try {
+            return client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Long> median(List<Map<String, Long>> runs) {
+        var median = new LinkedHashMap<String, Long>();
+        for (var metric : runs.get(0).keySet()) {
+            var values = runs.stream().mapToLong(run -> run.get(metric)).sorted().toArray();
+            median.put(metric, values[values.length / 2]);
+        }
+        return median;
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String isbn(long sequence) {
+        var digits = String.format("978%09d", sequence);
+        var sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+
+        return digits + (10 - sum % 10) % 10;
+    }
+}
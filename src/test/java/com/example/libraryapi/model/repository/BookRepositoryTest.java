@@ -11,7 +11,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -91,6 +93,21 @@ public class BookRepositoryTest {
         assertThat(deletedBook).isNull();
     }
 
+    @Test
+    @DisplayName("Deve obter livros por uma lista de chaves canônicas de isbn.")
+    public void findByIsbnKeyInTest() {
+        var book = createNewBook("9780306406157");
+        book.setIsbnKey(9780306406157L);
+        entityManager.persist(book);
+        var other = createNewBook("9788533613379");
+        other.setIsbnKey(9788533613379L);
+        entityManager.persist(other);
+
+        var books = repository.findByIsbnKeyIn(List.of(9780306406157L, 9783161484100L));
+
+        assertThat(books).extracting(Book::getIsbn).containsExactly("9780306406157");
+    }
+
     public static Book createNewBook(String isbn) {
         return Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build();
     }
@@ -0,0 +1,67 @@
+package com.example.libraryapi.model.repository;
+
+import com.example.libraryapi.api.model.entity.ChangeLog;
+import com.example.libraryapi.api.model.repository.ChangeLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class ChangeLogRepositoryTest {
+
+    @Autowired
+    private ChangeLogRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Deve buscar as alterações posteriores à posição informada, em ordem.")
+    public void findSinceTest() {
+        //cenário
+        var first = persist(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.UPSERT);
+        var second = persist(ChangeLog.EntityType.LOAN, 1L, ChangeLog.Operation.UPSERT);
+        var third = persist(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.DELETE);
+
+        //execução
+        var changes = repository.findSince(first.getId(), PageRequest.of(0, 10));
+
+        //verificação
+        assertThat(changes).containsExactly(second, third);
+    }
+
+    @Test
+    @DisplayName("Deve remover apenas registros superados por uma alteração mais recente da mesma entidade.")
+    public void deleteSupersededTest() {
+        //cenário
+        var superseded = persist(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.UPSERT);
+        var tombstone = persist(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.DELETE);
+        var loan = persist(ChangeLog.EntityType.LOAN, 1L, ChangeLog.Operation.UPSERT);
+
+        //execução
+        var removed = repository.deleteSuperseded(Instant.now().plusSeconds(60));
+        entityManager.clear();
+
+        //verificação
+        assertThat(removed).isEqualTo(1);
+        assertThat(repository.findAll()).extracting(ChangeLog::getId)
+                .containsExactlyInAnyOrder(tombstone.getId(), loan.getId())
+                .doesNotContain(superseded.getId());
+    }
+
+    private ChangeLog persist(ChangeLog.EntityType entityType, Long entityId, ChangeLog.Operation operation) {
+        return entityManager.persistAndFlush(ChangeLog.of(entityType, entityId, operation));
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.libraryapi.model.repository;
 
 import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.entity.LoanHistory;
+import com.example.libraryapi.api.model.repository.LoanHistoryRepository;
 import com.example.libraryapi.api.model.repository.LoanRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ public class LoanRepositoryTest {
     @Autowired
     private LoanRepository loanRepository;
 
+    @Autowired
+    private LoanHistoryRepository historyRepository;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -56,6 +61,19 @@ public class LoanRepositoryTest {
         assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Deve buscar a projeção dos empréstimos pelo isbn do livro ou customer do empréstimo.")
+    public void findSummariesByBookIsbnOrCustomerTest() {
+        var loan = createAndPersistLoan(LocalDate.now());
+
+        var result = loanRepository.findSummariesByBookIsbnOrCustomer(
+                "123", "Fulano", PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getId()).isEqualTo(loan.getId());
+        assertThat(result.getContent().get(0).getCustomer()).isEqualTo("Fulano");
+    }
+
     @Test
     @DisplayName("Deve obter empréstimos cuja data de empréstimo seja menor ou igual a 3 dias atrás e não foram retornados.")
     public void findByLoanDateLessThanAndNotReturnedTest() {
@@ -78,6 +96,48 @@ public class LoanRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("Deve resumir as versões dos empréstimos de um livro.")
+    public void summarizeVersionsByBookTest() {
+        var loan = createAndPersistLoan(LocalDate.now());
+
+        var summary = loanRepository.summarizeVersionsByBook(loan.getBook());
+
+        assertThat(summary.getCount()).isEqualTo(1);
+        assertThat(summary.getMaxId()).isEqualTo(loan.getId());
+        assertThat(summary.getVersionSum()).isEqualTo(loan.getVersion());
+        assertThat(summary.getBookVersionSum()).isEqualTo(loan.getBook().getVersion());
+    }
+
+    @Test
+    @DisplayName("Deve obter apenas empréstimos devolvidos anteriores à data informada.")
+    public void findReturnedBeforeTest() {
+        var loan = createAndPersistLoan(LocalDate.now().minusDays(40));
+        loan.setReturned(true);
+        entityManager.persist(loan);
+
+        var result = loanRepository.findReturnedBefore(LocalDate.now().minusDays(30), PageRequest.of(0, 10));
+
+        assertThat(result).containsExactly(loan);
+        assertThat(loanRepository.findReturnedBefore(LocalDate.now().minusDays(50), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve arquivar um empréstimo no histórico e buscá-lo pelo isbn do livro.")
+    public void saveAndFindHistoryTest() {
+        var loan = createAndPersistLoan(LocalDate.of(2020, 5, 10));
+        loan.setReturned(true);
+
+        historyRepository.saveAndFlush(LoanHistory.of(loan));
+        entityManager.clear();
+
+        var result = historyRepository.findByBookIsbnOrCustomer("123", null, PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getLoanMonth()).isEqualTo(202005);
+        assertThat(result.getContent().get(0).toLoan().getId()).isEqualTo(loan.getId());
+    }
+
     public Loan createAndPersistLoan(LocalDate localDate) {
         var book = createNewBook("123");
         entityManager.persist(book);
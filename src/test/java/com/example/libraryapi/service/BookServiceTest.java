@@ -2,21 +2,39 @@ package com.example.libraryapi.service;
 
 
 import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
 import com.example.libraryapi.api.model.repository.BookRepository;
 import com.example.libraryapi.exception.BusinessException;
 import com.example.libraryapi.service.impl.BookServiceImpl;
+import com.example.libraryapi.service.index.BookIndexes;
+import com.example.libraryapi.service.support.CatalogSnapshot;
+import com.example.libraryapi.service.support.LongHashIndex;
+import com.example.libraryapi.service.support.PrefixIndex;
+import com.example.libraryapi.service.support.ScalableBloomFilter;
+import com.example.libraryapi.service.support.SingleFlight;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -30,12 +48,18 @@ public class BookServiceTest {
 
     private BookService service;
 
+    private ScalableBloomFilter isbnFilter;
+
     @MockBean
     private BookRepository repository;
 
+    @MockBean
+    private SyncService syncService;
+
     @BeforeEach
     public void setUp() {
-        this.service = new BookServiceImpl(repository);
+        this.isbnFilter = new ScalableBloomFilter("book.isbn", 100, 0.01);
+        this.service = createService(createIndexes(new CatalogSnapshot(false, Path.of("catalog.snapshot"))));
     }
 
     @Test
@@ -43,11 +67,12 @@ public class BookServiceTest {
     public void saveBookTest() {
         //cenário
         var book = createValidBook();
-        when(repository.existsByIsbn(anyString())).thenReturn(false);
+        when(repository.existsByIsbnKey(anyLong())).thenReturn(false);
         when(repository.save(book)).thenReturn(Book
                 .builder()
                 .id(1L)
-                .isbn("123")
+                .isbn("9780306406157")
+                .isbnKey(9780306406157L)
                 .title("As Aventuras")
                 .author("Fulano")
                 .build());
@@ -57,9 +82,76 @@ public class BookServiceTest {
 
         //verificação
         assertThat(savedBook.getId()).isNotNull();
-        assertThat(savedBook.getIsbn()).isEqualTo("123");
+        assertThat(savedBook.getIsbn()).isEqualTo("9780306406157");
         assertThat(savedBook.getTitle()).isEqualTo("As Aventuras");
         assertThat(savedBook.getAuthor()).isEqualTo("Fulano");
+        verify(syncService).record(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.UPSERT);
+    }
+
+    @Test
+    @DisplayName("Deve dispensar a consulta de existência quando o filtro garantir que o ISBN é novo.")
+    public void saveBookSkipsExistenceQueryTest() {
+        //cenário
+        var book = createValidBook();
+        when(repository.save(book)).thenReturn(book.toBuilder().id(1L).build());
+
+        //execução
+        service.save(book);
+
+        //verificação
+        verify(repository, never()).existsByIsbnKey(anyLong());
+        assertThat(isbnFilter.getAbsentCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve converter a violação da constraint única de ISBN em erro de negócio.")
+    public void saveBookWithConcurrentDuplicatedIsbnTest() {
+        //cenário
+        var book = createValidBook();
+        when(repository.save(book)).thenThrow(new DataIntegrityViolationException("isbn_key"));
+
+        //execução
+        var exception = catchThrowable(() -> service.save(book));
+
+        //verificação
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("ISBN já cadastrado");
+    }
+
+    @Test
+    @DisplayName("Deve salvar o ISBN-10 informado na forma canônica de ISBN-13.")
+    public void saveBookWithIsbn10Test() {
+        //cenário
+        var book = createValidBook();
+        book.setIsbn("0-306-40615-2");
+        when(repository.existsByIsbnKey(9780306406157L)).thenReturn(false);
+        when(repository.save(book)).thenReturn(book);
+
+        //execução
+        var savedBook = service.save(book);
+
+        //verificação
+        assertThat(savedBook.getIsbn()).isEqualTo("9780306406157");
+        assertThat(savedBook.getIsbnKey()).isEqualTo(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao tentar salvar um livro com isbn inválido.")
+    public void shouldNotSaveABookWithInvalidIsbn() {
+        //cenário
+        var book = createValidBook();
+        book.setIsbn("9780306406158");
+
+        //execução
+        var exception = catchThrowable(() -> service.save(book));
+
+        //verificações
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("ISBN inválido");
+
+        verify(repository, never()).save(book);
     }
 
     @Test
@@ -67,7 +159,8 @@ public class BookServiceTest {
     public void shouldNotSaveABookWithDuplicatedIsbn() {
         //cenário
         var book = createValidBook();
-        when(repository.existsByIsbn(anyString())).thenReturn(true);
+        isbnFilter.put(9780306406157L);
+        when(repository.existsByIsbnKey(anyLong())).thenReturn(true);
 
         //execução
         var exception = catchThrowable(() -> service.save(book));
@@ -139,6 +232,7 @@ public class BookServiceTest {
 
         //verificação
         verify(repository, times(1)).delete(book);
+        verify(syncService).record(ChangeLog.EntityType.BOOK, 1L, ChangeLog.Operation.DELETE);
     }
 
 //    COMO EU IMPLEMENTEI
@@ -261,8 +355,9 @@ public class BookServiceTest {
     @Test
     @DisplayName("Deve obeter um livro pelo isbn.")
     public void getBookByIsbnTest() {
-        var isbn = "1230";
-        when(repository.findByIsbn(isbn)).thenReturn(Optional.of(Book.builder().id(1L).isbn(isbn).build()));
+        var isbn = "9780306406157";
+        when(repository.findByIsbnKey(9780306406157L))
+                .thenReturn(Optional.of(Book.builder().id(1L).isbn(isbn).isbnKey(9780306406157L).build()));
 
         var book = service.getBookByIsbn(isbn);
 
@@ -270,11 +365,134 @@ public class BookServiceTest {
         assertThat(book.get().getId()).isEqualTo(1L);
         assertThat(book.get().getIsbn()).isEqualTo(isbn);
 
-        verify(repository, times(1)).findByIsbn(isbn);
+        verify(repository, times(1)).findByIsbnKey(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar buscas concorrentes pelo mesmo id em uma única consulta.")
+    public void coalesceConcurrentLookupsTest() throws Exception {
+        //cenário
+        var id = 1L;
+        var threads = 32;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(Book.builder().id(id).isbn("9780306406157").build());
+        });
+
+        //execução
+        var results = new ArrayList<Future<Optional<Book>>>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return service.getById(id);
+            }));
+        }
+        start.countDown();
+
+        //verificação
+        for (var result : results) {
+            assertThat(result.get()).isPresent();
+        }
+        executor.shutdown();
+
+        verify(repository, atMost(threads / 4)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros por ids em lotes limitados de cláusula IN.")
+    public void getByIdsInChunksTest() {
+        //cenário
+        var ids = new ArrayList<Long>();
+        for (long id = 1; id <= 1200; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        when(repository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .filter(id -> id % 2 == 0)
+                    .map(id -> Book.builder().id(id).isbn("isbn-" + id).build())
+                    .collect(Collectors.toList());
+        });
+
+        //execução
+        var books = service.getByIds(ids);
+
+        //verificação
+        assertThat(books).hasSize(600).containsKey(2L).doesNotContainKey(1L);
+        verify(repository, times(3)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve sugerir títulos e autores pelo prefixo, mantendo o índice atualizado.")
+    public void autocompleteTest() {
+        //cenário
+        when(repository.existsByIsbnKey(anyLong())).thenReturn(false);
+        when(repository.save(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            return book.toBuilder().id(book.getIsbnKey() % 10).build();
+        });
+        var first = service.save(Book.builder().isbn("9780000000019").title("O Senhor dos Anéis").author("Tolkien").build());
+        service.save(Book.builder().isbn("9780000000026").title("Anéis de Saturno").author("Sebald").build());
+
+        //execução
+        var byWord = service.autocomplete("ANEI", 10);
+        var byAuthor = service.autocomplete("tol", 10);
+        service.delete(first);
+        var afterDelete = service.autocomplete("anéis", 10);
+
+        //verificação
+        assertThat(byWord).extracting(PrefixIndex.Suggestion::getText)
+                .containsExactly("O Senhor dos Anéis", "Anéis de Saturno");
+        assertThat(byAuthor).extracting(PrefixIndex.Suggestion::getField).containsExactly("author");
+        assertThat(afterDelete).extracting(PrefixIndex.Suggestion::getText).containsExactly("Anéis de Saturno");
+    }
+
+    @Test
+    @DisplayName("Deve confirmar no banco o ISBN aquecido pelo snapshot antes de recusá-lo como duplicado.")
+    public void saveBookWithStaleSnapshotIsbnTest(@TempDir Path directory) throws IOException {
+        //cenário
+        var snapshot = new CatalogSnapshot(true, directory.resolve("catalog.snapshot"));
+        var deleted = Book.builder().id(2L).isbn("9780306406157").isbnKey(9780306406157L)
+                .title("Memórias Póstumas").author("Machado de Assis").build();
+        snapshot.write(List.of(deleted).iterator());
+
+        var indexes = createIndexes(snapshot);
+        var warmService = createService(indexes);
+        var book = createValidBook();
+        when(repository.existsByIsbnKey(9780306406157L)).thenReturn(false);
+        when(repository.save(book)).thenReturn(Book.builder().id(3L).isbn("9780306406157").isbnKey(9780306406157L)
+                .title("As Aventuras").author("Fulano").build());
+
+        //execução
+        indexes.loadSnapshot();
+        var saved = warmService.save(book);
+
+        //verificação
+        assertThat(saved.getId()).isEqualTo(3L);
+        verify(repository, times(1)).existsByIsbnKey(9780306406157L);
+        when(repository.findById(3L)).thenReturn(Optional.of(saved));
+        assertThat(warmService.getBookByIsbn("9780306406157")).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(3L));
+    }
+
+    private BookIndexes createIndexes(CatalogSnapshot snapshot) {
+        return new BookIndexes(repository, new PrefixIndex("book.autocomplete"), new LongHashIndex("book.isbn", 16),
+                isbnFilter, snapshot);
+    }
+
+    private BookService createService(BookIndexes indexes) {
+        return new BookServiceImpl(
+                repository,
+                new SingleFlight<>("book.by-id", Duration.ofSeconds(5), book -> book),
+                new SingleFlight<>("book.by-isbn", Duration.ofSeconds(5), book -> book),
+                syncService,
+                indexes);
     }
 
     private Book createValidBook() {
-        return Book.builder().isbn("123").author("Fulano").title("As Aventuras").build();
+        return Book.builder().isbn("9780306406157").author("Fulano").title("As Aventuras").build();
     }
 
 }
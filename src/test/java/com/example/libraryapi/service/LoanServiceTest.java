@@ -2,10 +2,16 @@ package com.example.libraryapi.service;
 
 import com.example.libraryapi.api.dto.LoanFilterDTO;
 import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
 import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.entity.LoanHistory;
+import com.example.libraryapi.api.model.repository.LoanHistoryRepository;
 import com.example.libraryapi.api.model.repository.LoanRepository;
 import com.example.libraryapi.exception.BusinessException;
+import com.example.libraryapi.service.event.LoanEvent;
+import com.example.libraryapi.service.event.LoanEventBus;
 import com.example.libraryapi.service.impl.LoanServiceImpl;
+import com.example.libraryapi.service.ledger.LoanLedger;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +39,18 @@ public class LoanServiceTest {
     @Mock
     private LoanRepository repository;
 
+    @Mock
+    private LoanHistoryRepository historyRepository;
+
+    @Mock
+    private LoanEventBus eventBus;
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private LoanLedger ledger;
+
     @InjectMocks
     private LoanServiceImpl loanService;
 
@@ -53,6 +71,8 @@ public class LoanServiceTest {
         assertThat(loan.getBook()).isEqualTo(savedLoan.getBook());
         assertThat(loan.getCustomer()).isEqualTo(savedLoan.getCustomer());
         assertThat(loan.getLoanDate()).isEqualTo(savedLoan.getLoanDate());
+        verify(eventBus).publish(LoanEvent.Type.CREATED, savedLoan);
+        verify(syncService).record(ChangeLog.EntityType.LOAN, 1L, ChangeLog.Operation.UPSERT);
     }
 
     @Test
@@ -67,6 +87,7 @@ public class LoanServiceTest {
 
         assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Livro já emprestado.");
         verify(repository, never()).save(loanToSave);
+        verifyNoInteractions(eventBus);
     }
 
     @Test
@@ -92,6 +113,86 @@ public class LoanServiceTest {
         verify(repository, times(1)).findById(id);
     }
 
+    @Test
+    @DisplayName("Deve consultar o banco só quando o ledger indicar o livro como emprestado.")
+    public void saveLoanWithLedgerTest() {
+        var book = Book.builder().id(1L).build();
+        var loanToSave = Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).build();
+        var savedLoan = Loan.builder().id(1L).book(book).customer("Fulano").loanDate(LocalDate.now()).build();
+
+        when(ledger.isEnabled()).thenReturn(true);
+        when(repository.save(loanToSave)).thenReturn(savedLoan);
+
+        loanService.save(loanToSave);
+        verify(repository, never()).existsByBookAndNotReturned(any());
+
+        when(ledger.isBookActive(1L)).thenReturn(true);
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(true);
+        var exception = catchThrowable(() -> loanService.save(loanToSave));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Livro já emprestado.");
+        verify(ledger).append(LoanLedger.Type.CREATED, savedLoan);
+    }
+
+    @Test
+    @DisplayName("Deve emprestar o livro quando o banco não confirmar o empréstimo ativo do ledger.")
+    public void saveLoanWithStaleLedgerTest() {
+        //cenário
+        var book = Book.builder().id(1L).build();
+        var loanToSave = Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).build();
+        var savedLoan = Loan.builder().id(2L).book(book).customer("Fulano").loanDate(LocalDate.now()).build();
+
+        when(ledger.isEnabled()).thenReturn(true);
+        when(ledger.isBookActive(1L)).thenReturn(true);
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(false);
+        when(repository.save(loanToSave)).thenReturn(savedLoan);
+
+        //execução
+        var result = loanService.save(loanToSave);
+
+        //verificação
+        assertThat(result.getId()).isEqualTo(2L);
+        verify(ledger).append(LoanLedger.Type.CREATED, savedLoan);
+    }
+
+    @Test
+    @DisplayName("Deve registrar no ledger a reabertura de um empréstimo devolvido.")
+    public void reopenLoanTest() {
+        //cenário
+        var loan = createLoan();
+        loan.setId(1L);
+        loan.setReturned(false);
+
+        when(ledger.isEnabled()).thenReturn(true);
+        when(ledger.isLoanActive(1L, 1L)).thenReturn(false);
+        when(repository.save(loan)).thenReturn(loan);
+
+        //execução
+        loanService.update(loan);
+
+        //verificação
+        verify(ledger).append(LoanLedger.Type.CREATED, loan);
+        verify(ledger, never()).append(eq(LoanLedger.Type.RETURNED), any());
+    }
+
+    @Test
+    @DisplayName("Deve registrar no ledger os empréstimos ativos no banco que ele não conhece.")
+    public void reconcileLedgerTest() {
+        //cenário
+        var known = Loan.builder().id(1L).book(Book.builder().id(1L).build()).build();
+        var missing = Loan.builder().id(2L).book(Book.builder().id(2L).build()).build();
+
+        when(ledger.isEnabled()).thenReturn(true);
+        when(ledger.isLoanActive(1L, 1L)).thenReturn(true);
+        when(repository.findNotReturned()).thenReturn(List.of(known, missing));
+
+        //execução
+        loanService.reconcileLedger();
+
+        //verificação
+        verify(ledger).seed(List.of(missing));
+    }
+
     @Test
     @DisplayName("Deve atualizar um empréstimo.")
     public void updateLoanTest() {
@@ -106,6 +207,25 @@ public class LoanServiceTest {
         assertThat(updatedLoan.getReturned()).isTrue();
 
         verify(repository, times(1)).save(loan);
+        verify(eventBus).publish(LoanEvent.Type.RETURNED, loan);
+        verify(ledger).append(LoanLedger.Type.RETURNED, loan);
+    }
+
+    @Test
+    @DisplayName("Deve publicar um evento de atraso para cada empréstimo vencido.")
+    public void notifyLateLoansTest() {
+        //cenário
+        var loan = createLoan();
+        loan.setId(1L);
+
+        when(repository.findByLoanDateLessThanAndNotReturned(any(LocalDate.class))).thenReturn(List.of(loan));
+
+        //execução
+        var count = loanService.notifyLateLoans();
+
+        //verificação
+        assertThat(count).isEqualTo(1);
+        verify(eventBus).publish(LoanEvent.Type.OVERDUE, loan);
     }
 
     @Test
@@ -131,6 +251,56 @@ public class LoanServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Deve completar a página que cruza a fronteira com o início do histórico.")
+    public void findLoanWithHistoryTest() {
+        //cenário
+        var loanFilterDTO = LoanFilterDTO.builder().customer("Fulano").build();
+        var active = createLoan();
+        active.setId(3L);
+        var archived = LoanHistory.of(Loan.builder().id(1L).book(active.getBook()).customer("Fulano")
+                .loanDate(LocalDate.of(2020, 5, 10)).returned(true).build());
+
+        var pageRequest = PageRequest.of(1, 2);
+        when(repository.findByBookIsbnOrCustomer(any(), anyString(), eq(pageRequest)))
+                .thenReturn(new PageImpl<>(List.of(active), pageRequest, 3));
+        when(historyRepository.findByBookIsbnOrCustomer(any(), anyString(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Pageable pageable = invocation.getArgument(2);
+                    return new PageImpl<>(List.of(archived), pageable, 4);
+                });
+
+        //execução
+        var result = loanService.find(loanFilterDTO, pageRequest, true);
+
+        //verificações
+        assertThat(result.getContent()).extracting(Loan::getId).containsExactly(3L, 1L);
+        assertThat(result.getContent().get(1).getReturned()).isTrue();
+        assertThat(result.getTotalElements()).isEqualTo(7);
+        verify(historyRepository).findByBookIsbnOrCustomer(any(), anyString(),
+                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 1));
+    }
+
+    @Test
+    @DisplayName("Deve mover um lote de empréstimos devolvidos para o histórico.")
+    public void archiveReturnedLoansTest() {
+        //cenário
+        var loan = createLoan();
+        loan.setId(1L);
+        loan.setReturned(true);
+        var before = LocalDate.now().minusDays(30);
+        when(repository.findReturnedBefore(before, PageRequest.of(0, 100))).thenReturn(List.of(loan));
+
+        //execução
+        var archived = loanService.archiveReturnedLoans(before, 100);
+
+        //verificações
+        assertThat(archived).isEqualTo(1);
+        verify(historyRepository).saveAll(argThat(entries -> entries.iterator().next().getId().equals(1L)));
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(syncService).record(ChangeLog.EntityType.LOAN, 1L, ChangeLog.Operation.DELETE);
+    }
+
     public static Loan createLoan() {
         var customer = "Fulano";
         var book = Book.builder().id(1L).build();
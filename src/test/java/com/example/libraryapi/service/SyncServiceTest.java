@@ -0,0 +1,144 @@
+package com.example.libraryapi.service;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.ChangeLog;
+import com.example.libraryapi.api.model.entity.Loan;
+import com.example.libraryapi.api.model.repository.BookRepository;
+import com.example.libraryapi.api.model.repository.ChangeLogRepository;
+import com.example.libraryapi.api.model.repository.LoanRepository;
+import com.example.libraryapi.service.impl.SyncServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SyncServiceTest {
+
+    @Mock
+    private ChangeLogRepository repository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private SyncServiceImpl syncService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(syncService, "settleTime", Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve recusar um timeout de escrita que não seja menor que o settle-time.")
+    public void writerTimeoutTest() {
+        //cenário
+        ReflectionTestUtils.setField(syncService, "writerTimeoutSeconds", 5);
+
+        //execução
+        var exception = catchThrowable(() -> syncService.checkWriterTimeout());
+
+        //verificação
+        assertThat(exception).isInstanceOf(IllegalStateException.class).hasMessageContaining("settle-time");
+        ReflectionTestUtils.setField(syncService, "writerTimeoutSeconds", 3);
+        syncService.checkWriterTimeout();
+    }
+
+    @Test
+    @DisplayName("Deve retornar o estado atual de cada entidade alterada e os tombstones.")
+    public void changesSinceTest() {
+        //cenário
+        var old = Instant.now().minusSeconds(60);
+        when(repository.findSince(10, PageRequest.of(0, 101))).thenReturn(List.of(
+                change(11, ChangeLog.EntityType.BOOK, 1, ChangeLog.Operation.UPSERT, old),
+                change(12, ChangeLog.EntityType.LOAN, 5, ChangeLog.Operation.UPSERT, old),
+                change(13, ChangeLog.EntityType.BOOK, 1, ChangeLog.Operation.UPSERT, old),
+                change(14, ChangeLog.EntityType.BOOK, 2, ChangeLog.Operation.UPSERT, old),
+                change(15, ChangeLog.EntityType.BOOK, 2, ChangeLog.Operation.DELETE, old),
+                change(17, ChangeLog.EntityType.LOAN, 6, ChangeLog.Operation.UPSERT, old)));
+        var book = Book.builder().id(1L).isbn("9780306406157").build();
+        when(bookRepository.findByIdIn(Set.of(1L))).thenReturn(List.of(book));
+        when(loanRepository.findAllById(Set.of(5L, 6L)))
+                .thenReturn(List.of(Loan.builder().id(5L).book(book).returned(true).build()));
+
+        //execução
+        var changes = syncService.changesSince(10, 100);
+
+        //verificação
+        assertThat(changes.getNext()).isEqualTo(17);
+        assertThat(changes.isMore()).isFalse();
+        assertThat(changes.getBooks()).containsExactly(book);
+        assertThat(changes.getLoans()).extracting(Loan::getId).containsExactly(5L);
+        assertThat(changes.getDeletedBooks()).containsExactly(2L);
+        assertThat(changes.getDeletedLoans()).containsExactly(6L);
+    }
+
+    @Test
+    @DisplayName("Deve parar antes de um buraco recente na sequência de alterações.")
+    public void stopAtRecentGapTest() {
+        //cenário
+        var now = Instant.now();
+        when(repository.findSince(0, PageRequest.of(0, 11))).thenReturn(List.of(
+                change(1, ChangeLog.EntityType.BOOK, 1, ChangeLog.Operation.DELETE, now),
+                change(3, ChangeLog.EntityType.BOOK, 3, ChangeLog.Operation.DELETE, now)));
+
+        //execução
+        var changes = syncService.changesSince(0, 10);
+
+        //verificação
+        assertThat(changes.getNext()).isEqualTo(1);
+        assertThat(changes.isMore()).isTrue();
+        assertThat(changes.getDeletedBooks()).containsExactly(1L);
+        verify(bookRepository, never()).findByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o lote e indicar que há mais alterações.")
+    public void limitTest() {
+        //cenário
+        var old = Instant.now().minusSeconds(60);
+        when(repository.findSince(0, PageRequest.of(0, 3))).thenReturn(List.of(
+                change(1, ChangeLog.EntityType.LOAN, 1, ChangeLog.Operation.DELETE, old),
+                change(2, ChangeLog.EntityType.LOAN, 2, ChangeLog.Operation.DELETE, old),
+                change(3, ChangeLog.EntityType.LOAN, 3, ChangeLog.Operation.DELETE, old)));
+
+        //execução
+        var changes = syncService.changesSince(0, 2);
+
+        //verificação
+        assertThat(changes.getNext()).isEqualTo(2);
+        assertThat(changes.isMore()).isTrue();
+        assertThat(changes.getDeletedLoans()).containsExactly(1L, 2L);
+    }
+
+    private static ChangeLog change(long id, ChangeLog.EntityType entityType, long entityId,
+                                    ChangeLog.Operation operation, Instant changedAt) {
+        return ChangeLog.builder()
+                .id(id)
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .changedAt(changedAt)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanEventBusTest {
+
+    @Test
+    @DisplayName("Deve entregar todos os eventos, em ordem, para cada handler.")
+    public void deliverInOrderTest() throws Exception {
+        //cenário
+        var first = new RecordingHandler("primeiro", 0);
+        var second = new RecordingHandler("segundo", 0);
+        var bus = new LoanEventBus(8, List.of(first, second), Duration.ofSeconds(5));
+        bus.start();
+
+        //execução
+        for (long id = 1; id <= 100; id++) {
+            bus.publish(LoanEvent.Type.CREATED, loan(id));
+        }
+        bus.stop();
+
+        //verificação
+        var expected = new ArrayList<Long>();
+        for (long id = 1; id <= 100; id++) {
+            expected.add(id);
+        }
+        assertThat(first.loanIds).containsExactlyElementsOf(expected);
+        assertThat(second.loanIds).containsExactlyElementsOf(expected);
+        assertThat(first.endOfBatches).isPositive().isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Deve fazer o produtor esperar o handler mais lento sem perder eventos.")
+    public void concurrentProducersTest() throws Exception {
+        //cenário
+        var slow = new RecordingHandler("lento", 1);
+        var bus = new LoanEventBus(4, List.of(slow), Duration.ofSeconds(10));
+        bus.start();
+
+        var producers = 4;
+        var perProducer = 25;
+        var done = new CountDownLatch(producers);
+
+        //execução
+        for (int p = 0; p < producers; p++) {
+            var offset = p * 1000L;
+            new Thread(() -> {
+                for (long i = 1; i <= perProducer; i++) {
+                    bus.publish(LoanEvent.Type.RETURNED, loan(offset + i));
+                }
+                done.countDown();
+            }).start();
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        bus.stop();
+
+        //verificação
+        assertThat(slow.loanIds).hasSize(producers * perProducer).doesNotHaveDuplicates();
+        assertThat(bus.getCursor()).isEqualTo(producers * perProducer - 1);
+    }
+
+    @Test
+    @DisplayName("Deve continuar entregando eventos depois de uma falha no handler.")
+    public void handlerFailureTest() throws Exception {
+        //cenário
+        var handled = new CopyOnWriteArrayList<Long>();
+        LoanEventHandler failing = new LoanEventHandler() {
+            @Override
+            public String getName() {
+                return "falho";
+            }
+
+            @Override
+            public void onEvent(LoanEvent event, boolean endOfBatch) {
+                if (event.getLoanId() == 1) {
+                    throw new IllegalStateException("falha");
+                }
+                handled.add(event.getLoanId());
+            }
+        };
+        var bus = new LoanEventBus(4, List.of(failing), Duration.ofSeconds(5));
+        bus.start();
+
+        //execução
+        bus.publish(LoanEvent.Type.CREATED, loan(1));
+        bus.publish(LoanEvent.Type.CREATED, loan(2));
+        bus.stop();
+
+        //verificação
+        assertThat(handled).containsExactly(2L);
+    }
+
+    private static Loan loan(long id) {
+        return Loan.builder()
+                .id(id)
+                .customer("Fulano")
+                .email("fulano@email.com")
+                .book(Book.builder().id(id).isbn("9780306406157").build())
+                .build();
+    }
+
+    private static class RecordingHandler implements LoanEventHandler {
+
+        private final String name;
+        private final long delayMillis;
+        private final List<Long> loanIds = new CopyOnWriteArrayList<>();
+        private volatile int endOfBatches;
+
+        private RecordingHandler(String name, long delayMillis) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(LoanEvent event, boolean endOfBatch) {
+            loanIds.add(event.getLoanId());
+            if (endOfBatch) {
+                endOfBatches++;
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.libraryapi.service.event;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanFeedTest {
+
+    private static final String ISBN = "9780306406157";
+    private static final String EPOCH = "epoca";
+
+    private long sequence;
+
+    @Test
+    @DisplayName("Deve entregar apenas as entradas que atendem aos filtros da assinatura.")
+    public void filterTest() {
+        //cenário
+        var feed = createFeed(16, 10);
+        var byIsbn = new RecordingSubscriber();
+        var byCustomer = new RecordingSubscriber();
+        feed.subscribe("0-306-40615-2", null, null, byIsbn);
+        feed.subscribe(null, "Ciclano", null, byCustomer);
+
+        //execução
+        publish(feed, LoanEvent.Type.CREATED, 1, ISBN, "Fulano");
+        publish(feed, LoanEvent.Type.CREATED, 2, "9781861972712", "Ciclano");
+        publish(feed, LoanEvent.Type.OVERDUE, 1, ISBN, "Fulano");
+        publish(feed, LoanEvent.Type.RETURNED, 1, ISBN, "Fulano");
+
+        //verificação
+        assertThat(byIsbn.entries).extracting(LoanFeedEntry::getType).containsExactly("created", "returned");
+        assertThat(byIsbn.entries).extracting(LoanFeedEntry::isAvailable).containsExactly(false, true);
+        assertThat(byCustomer.entries).extracting(LoanFeedEntry::getLoanId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve reenviar as entradas posteriores ao Last-Event-ID informado.")
+    public void resumeTest() {
+        //cenário
+        var feed = createFeed(16, 10);
+        for (long id = 1; id <= 5; id++) {
+            publish(feed, LoanEvent.Type.CREATED, id, ISBN, "Fulano");
+        }
+        var subscriber = new RecordingSubscriber();
+
+        //execução
+        feed.subscribe(null, null, EPOCH + "-2", subscriber);
+        publish(feed, LoanEvent.Type.RETURNED, 1, ISBN, "Fulano");
+
+        //verificação
+        assertThat(subscriber.entries).extracting(LoanFeedEntry::getId).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(subscriber.resets).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve pedir recarga quando o Last-Event-ID já saiu do buffer de replay.")
+    public void resetTest() {
+        //cenário
+        var feed = createFeed(4, 10);
+        for (long id = 1; id <= 10; id++) {
+            publish(feed, LoanEvent.Type.CREATED, id, ISBN, "Fulano");
+        }
+        var subscriber = new RecordingSubscriber();
+
+        //execução
+        feed.subscribe(null, null, EPOCH + "-2", subscriber);
+
+        //verificação
+        assertThat(subscriber.resets).isEqualTo(1);
+        assertThat(subscriber.entries).isEmpty();
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve recusar assinaturas acima do limite e remover assinantes desconectados.")
+    public void subscriberLimitTest() {
+        //cenário
+        var feed = createFeed(16, 1);
+        var disconnected = new RecordingSubscriber();
+        disconnected.connected = false;
+
+        //execução
+        var first = feed.subscribe(null, null, null, disconnected);
+        var rejected = feed.subscribe(null, null, null, new RecordingSubscriber());
+        feed.heartbeat();
+        var accepted = feed.subscribe(null, null, null, new RecordingSubscriber());
+
+        //verificação
+        assertThat(first).isPresent();
+        assertThat(rejected).isEmpty();
+        assertThat(accepted).isPresent();
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve pedir recarga quando o Last-Event-ID for de outra inicialização ou estiver à frente do feed.")
+    public void resetAfterRestartTest() {
+        //cenário
+        var feed = createFeed(16, 10);
+        for (long id = 1; id <= 3; id++) {
+            publish(feed, LoanEvent.Type.CREATED, id, ISBN, "Fulano");
+        }
+        var restarted = new RecordingSubscriber();
+        var ahead = new RecordingSubscriber();
+        var malformed = new RecordingSubscriber();
+
+        //execução
+        feed.subscribe(null, null, "outra-5000", restarted);
+        feed.subscribe(null, null, EPOCH + "-5000", ahead);
+        feed.subscribe(null, null, "5000", malformed);
+
+        //verificação
+        assertThat(restarted.resets).isEqualTo(1);
+        assertThat(ahead.resets).isEqualTo(1);
+        assertThat(malformed.resets).isEqualTo(1);
+        assertThat(restarted.entries).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve entregar fora da thread do barramento e mandar recarregar o assinante lento.")
+    public void slowSubscriberTest() {
+        //cenário
+        var pending = new ArrayList<Runnable>();
+        var feed = new LoanFeed(16, 10, 2, pending::add, EPOCH);
+        var subscriber = new RecordingSubscriber();
+        feed.subscribe(null, null, null, subscriber);
+        pending.remove(0).run();
+
+        //execução
+        for (long id = 1; id <= 5; id++) {
+            publish(feed, LoanEvent.Type.CREATED, id, ISBN, "Fulano");
+        }
+
+        //verificação
+        assertThat(subscriber.entries).isEmpty();
+        assertThat(pending).hasSize(1);
+
+        pending.get(0).run();
+        assertThat(subscriber.resets).isEqualTo(1);
+        assertThat(subscriber.entries).extracting(LoanFeedEntry::getId).containsExactly(4L, 5L);
+        assertThat(subscriber.entries).extracting(LoanFeedEntry::getEventId).containsExactly(EPOCH + "-4", EPOCH + "-5");
+    }
+
+    @Test
+    @DisplayName("Deve enviar heartbeats pelo pool do próprio feed, sem depender do agendador do Spring.")
+    public void heartbeatTest() throws InterruptedException {
+        //cenário
+        var feed = new LoanFeed(16, 10, 64, 1, Duration.ofMillis(10));
+        var subscriber = new RecordingSubscriber();
+        feed.subscribe(null, null, null, subscriber);
+
+        //execução
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscriber.heartbeats < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        feed.stop();
+
+        //verificação
+        assertThat(subscriber.heartbeats).isGreaterThanOrEqualTo(2);
+    }
+
+    private LoanFeed createFeed(int replaySize, int maxSubscribers) {
+        Executor direct = Runnable::run;
+        return new LoanFeed(replaySize, maxSubscribers, 64, direct, EPOCH);
+    }
+
+    private void publish(LoanFeed feed, LoanEvent.Type type, long loanId, String isbn, String customer) {
+        var loan = Loan.builder()
+                .id(loanId)
+                .customer(customer)
+                .book(Book.builder().id(loanId).isbn(isbn).build())
+                .build();
+        var event = new LoanEvent();
+        event.set(++sequence, type, loan);
+        feed.onEvent(event, true);
+    }
+
+    private static class RecordingSubscriber implements LoanFeed.Subscriber {
+
+        private final List<LoanFeedEntry> entries = new ArrayList<>();
+        private int resets;
+        private volatile int heartbeats;
+        private boolean connected = true;
+
+        @Override
+        public void send(LoanFeedEntry entry) throws IOException {
+            check();
+            entries.add(entry);
+        }
+
+        @Override
+        public void reset() throws IOException {
+            check();
+            resets++;
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            check();
+            heartbeats++;
+        }
+
+        private void check() throws IOException {
+            if (!connected) {
+                throw new IOException("Conexão encerrada.");
+            }
+        }
+    }
+}
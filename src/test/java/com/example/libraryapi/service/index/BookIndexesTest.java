@@ -0,0 +1,89 @@
+package com.example.libraryapi.service.index;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.repository.BookRepository;
+import com.example.libraryapi.service.support.CatalogSnapshot;
+import com.example.libraryapi.service.support.LongHashIndex;
+import com.example.libraryapi.service.support.PrefixIndex;
+import com.example.libraryapi.service.support.ScalableBloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BookIndexesTest {
+
+    @MockBean
+    private BookRepository repository;
+
+    @Test
+    @DisplayName("Deve reconstruir os índices de autocompletar e de ISBN a partir do repositório.")
+    public void rebuildTest() {
+        //cenário
+        var indexes = createIndexes(new CatalogSnapshot(false, Path.of("catalog.snapshot")));
+        var book = Book.builder().id(1L).isbn("9788533613379").isbnKey(9788533613379L)
+                .title("Dom Casmurro").author("Machado de Assis").build();
+        when(repository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(book)));
+
+        //execução
+        indexes.rebuild();
+
+        //verificação
+        assertThat(indexes.suggest("assis", 5)).extracting(PrefixIndex.Suggestion::getText)
+                .containsExactly("Machado de Assis");
+        assertThat(indexes.findId(9788533613379L)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Deve aquecer os índices com o snapshot do catálogo e reconciliá-los com o repositório.")
+    public void warmStartFromSnapshotTest(@TempDir Path directory) throws IOException {
+        //cenário
+        var snapshot = new CatalogSnapshot(true, directory.resolve("catalog.snapshot"));
+        var kept = Book.builder().id(1L).isbn("9788533613379").isbnKey(9788533613379L)
+                .title("Dom Casmurro").author("Machado de Assis").build();
+        var deleted = Book.builder().id(2L).isbn("9780306406157").isbnKey(9780306406157L)
+                .title("Memórias Póstumas").author("Machado de Assis").build();
+        snapshot.write(List.of(kept, deleted).iterator());
+
+        var indexes = createIndexes(snapshot);
+        when(repository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(kept)));
+
+        //execução
+        indexes.loadSnapshot();
+        var warm = indexes.suggest("machado", 5);
+        var warmDeleted = indexes.suggest("memórias", 5);
+        indexes.reconcile();
+        var reconciled = indexes.suggest("memórias", 5);
+
+        //verificação
+        assertThat(warm).extracting(PrefixIndex.Suggestion::getText).containsExactly("Machado de Assis");
+        assertThat(warmDeleted).extracting(PrefixIndex.Suggestion::getText).containsExactly("Memórias Póstumas");
+        assertThat(reconciled).isEmpty();
+        assertThat(indexes.suggest("dom", 5)).extracting(PrefixIndex.Suggestion::getText)
+                .containsExactly("Dom Casmurro");
+        assertThat(indexes.findId(9780306406157L)).isEqualTo(LongHashIndex.MISSING);
+        verify(repository, times(1)).findAll(any(PageRequest.class));
+    }
+
+    private BookIndexes createIndexes(CatalogSnapshot snapshot) {
+        return new BookIndexes(repository, new PrefixIndex("book.autocomplete"), new LongHashIndex("book.isbn", 16),
+                new ScalableBloomFilter("book.isbn", 100, 0.01), snapshot);
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.libraryapi.service.ledger;
+
+import com.example.libraryapi.api.model.entity.Book;
+import com.example.libraryapi.api.model.entity.Loan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recuperação do ledger após quedas simuladas: o ledger é parado (ou abandonado sem fechar) e os
+ * arquivos são adulterados como ficariam com uma escrita interrompida no meio.
+ */
+public class LoanLedgerTest {
+
+    private static final int RECORD = LedgerSegment.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private final List<LoanLedger> ledgers = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (var ledger : ledgers) {
+            ledger.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os empréstimos ativos a partir dos segmentos.")
+    public void recoverTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        for (long id = 1; id <= 10; id++) {
+            ledger.append(LoanLedger.Type.CREATED, loan(id, id));
+        }
+        ledger.append(LoanLedger.Type.RETURNED, loan(3, 3));
+        ledger.append(LoanLedger.Type.CREATED, loan(11, 3));
+        ledger.append(LoanLedger.Type.RETURNED, loan(5, 5));
+
+        //execução
+        var recovered = restart(ledger, 1024);
+
+        //verificação
+        assertThat(recovered.getActiveCount()).isEqualTo(9);
+        assertThat(recovered.isBookActive(3)).isTrue();
+        assertThat(recovered.isBookActive(5)).isFalse();
+        assertThat(recovered.isEmpty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve descartar um registro rasgado no fim do segmento e continuar gravando depois dele.")
+    public void tornTailTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        for (long id = 1; id <= 5; id++) {
+            ledger.append(LoanLedger.Type.CREATED, loan(id, id));
+        }
+        abandon(ledger);
+        corrupt(onlySegment(), 4 * RECORD + 20);
+
+        //execução
+        var recovered = start(1024);
+        recovered.append(LoanLedger.Type.CREATED, loan(6, 6));
+        var again = restart(recovered, 1024);
+
+        //verificação
+        assertThat(recovered.isBookActive(5)).isFalse();
+        assertThat(again.getActiveCount()).isEqualTo(5);
+        assertThat(again.isBookActive(5)).isFalse();
+        assertThat(again.isBookActive(6)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar uma gravação parcial depois do último registro completo.")
+    public void partialWriteTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        ledger.append(LoanLedger.Type.CREATED, loan(1, 1));
+        ledger.append(LoanLedger.Type.CREATED, loan(2, 2));
+        abandon(ledger);
+        try (var file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(2 * RECORD + 8);
+            file.writeLong(3);
+        }
+
+        //execução
+        var recovered = start(1024);
+
+        //verificação
+        assertThat(recovered.getActiveCount()).isEqualTo(2);
+        assertThat(recovered.segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve reaproveitar registros antigos que seguem um registro rasgado.")
+    public void staleRecordsAfterTornWriteTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        for (long id = 1; id <= 6; id++) {
+            ledger.append(LoanLedger.Type.CREATED, loan(id, id));
+        }
+        abandon(ledger);
+        corrupt(onlySegment(), 2 * RECORD + 30);
+
+        //execução
+        var recovered = start(1024);
+        recovered.append(LoanLedger.Type.CREATED, loan(100, 100));
+        var again = restart(recovered, 1024);
+
+        //verificação
+        assertThat(recovered.getActiveCount()).isEqualTo(3);
+        assertThat(again.getActiveCount()).isEqualTo(3);
+        assertThat(again.isBookActive(4)).isFalse();
+        assertThat(again.isBookActive(100)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve compactar os segmentos cobertos por snapshots e recuperar a partir deles.")
+    public void snapshotAndCompactionTest() throws IOException {
+        //cenário
+        var ledger = start(4 * RECORD);
+        for (long id = 1; id <= 20; id++) {
+            ledger.append(LoanLedger.Type.CREATED, loan(id, id));
+        }
+        ledger.snapshot();
+        for (long id = 1; id <= 10; id++) {
+            ledger.append(LoanLedger.Type.RETURNED, loan(id, id));
+        }
+        ledger.snapshot();
+        ledger.append(LoanLedger.Type.CREATED, loan(21, 21));
+
+        //execução
+        var segments = ledger.segmentCount();
+        var recovered = restart(ledger, 4 * RECORD);
+
+        //verificação
+        assertThat(segments).isLessThan(8);
+        assertThat(files(".snapshot")).hasSize(LoanLedger.RETAINED_SNAPSHOTS);
+        assertThat(recovered.getActiveCount()).isEqualTo(11);
+        assertThat(recovered.isBookActive(1)).isFalse();
+        assertThat(recovered.isBookActive(21)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve usar o snapshot anterior quando o mais recente estiver corrompido.")
+    public void corruptedSnapshotTest() throws IOException {
+        //cenário
+        var ledger = start(4 * RECORD);
+        for (long id = 1; id <= 8; id++) {
+            ledger.append(LoanLedger.Type.CREATED, loan(id, id));
+        }
+        ledger.snapshot();
+        ledger.append(LoanLedger.Type.RETURNED, loan(1, 1));
+        var latest = ledger.snapshot();
+        ledger.append(LoanLedger.Type.RETURNED, loan(2, 2));
+        abandon(ledger);
+        corrupt(latest, 30);
+
+        //execução
+        var recovered = start(4 * RECORD);
+
+        //verificação
+        assertThat(recovered.getActiveCount()).isEqualTo(6);
+        assertThat(recovered.isBookActive(1)).isFalse();
+        assertThat(recovered.isBookActive(2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o registro inverso quando a transação sofrer rollback.")
+    public void rollbackTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //execução
+        try {
+            ledger.append(LoanLedger.Type.CREATED, loan(1, 1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        var recovered = restart(ledger, 1024);
+
+        //verificação
+        assertThat(ledger.isBookActive(1)).isFalse();
+        assertThat(recovered.isBookActive(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve gravar a devolução somente depois do commit da transação.")
+    public void returnAfterCommitTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        ledger.append(LoanLedger.Type.CREATED, loan(1, 1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //execução
+        try {
+            ledger.append(LoanLedger.Type.RETURNED, loan(1, 1));
+            assertThat(ledger.isBookActive(1)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            });
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        var recovered = restart(ledger, 1024);
+
+        //verificação
+        assertThat(recovered.isBookActive(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve gravar a devolução quando a transação sofrer rollback.")
+    public void returnRollbackTest() throws IOException {
+        //cenário
+        var ledger = start(1024);
+        ledger.append(LoanLedger.Type.CREATED, loan(1, 1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //execução
+        try {
+            ledger.append(LoanLedger.Type.RETURNED, loan(1, 1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        var recovered = restart(ledger, 1024);
+
+        //verificação
+        assertThat(ledger.isLoanActive(1, 1)).isTrue();
+        assertThat(recovered.isLoanActive(1, 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Não deve criar arquivos quando estiver desabilitado.")
+    public void disabledTest() throws IOException {
+        //cenário
+        var ledger = new LoanLedger(false, directory.resolve("ledger"), 1024, false);
+
+        //execução
+        ledger.start();
+        ledger.append(LoanLedger.Type.CREATED, loan(1, 1));
+
+        //verificação
+        assertThat(ledger.isBookActive(1)).isFalse();
+        assertThat(Files.exists(directory.resolve("ledger"))).isFalse();
+    }
+
+    private LoanLedger start(int segmentSize) throws IOException {
+        var ledger = new LoanLedger(true, directory, segmentSize, false);
+        ledger.start();
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    private LoanLedger restart(LoanLedger ledger, int segmentSize) throws IOException {
+        ledger.stop();
+        return start(segmentSize);
+    }
+
+    /**
+     * Simula a queda do processo: o ledger não é parado (sem {@code force} nem fechamento), e o
+     * conteúdo gravado fica apenas na page cache, como ficaria para o próximo processo. O
+     * {@link #tearDown()} fecha o mapeamento ao final do teste.
+     */
+    private void abandon(LoanLedger ledger) {
+    }
+
+    private Path onlySegment() throws IOException {
+        var segments = files(".log");
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void corrupt(Path path, long offset) throws IOException {
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(offset);
+            var value = file.read();
+            file.seek(offset);
+            file.write(value ^ 0xFF);
+        }
+    }
+
+    private static Loan loan(long id, long bookId) {
+        return Loan.builder().id(id).book(Book.builder().id(bookId).build()).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.libraryapi.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AfterCommitTest {
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve executar a ação na hora quando não houver transação.")
+    public void withoutTransactionTest() {
+        //cenário
+        var executed = new ArrayList<String>();
+
+        //execução
+        AfterCommit.run(() -> executed.add("ação"));
+
+        //verificação
+        assertThat(executed).containsExactly("ação");
+    }
+
+    @Test
+    @DisplayName("Deve executar a ação somente depois do commit da transação.")
+    public void afterCommitTest() {
+        //cenário
+        var executed = new ArrayList<String>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        //execução
+        AfterCommit.run(() -> executed.add("ação"));
+        assertThat(executed).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        //verificação
+        assertThat(executed).containsExactly("ação");
+    }
+
+    @Test
+    @DisplayName("Não deve executar a ação quando a transação sofrer rollback.")
+    public void rollbackTest() {
+        //cenário
+        var executed = new ArrayList<String>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        //execução
+        AfterCommit.run(() -> executed.add("ação"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //verificação
+        assertThat(executed).isEmpty();
+    }
+}
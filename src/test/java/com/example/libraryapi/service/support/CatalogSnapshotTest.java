@@ -0,0 +1,64 @@
+package com.example.libraryapi.service.support;
+
+import com.example.libraryapi.api.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve ler os livros gravados no snapshot do catálogo.")
+    public void writeAndLoadTest() throws IOException {
+        //cenário
+        var snapshot = new CatalogSnapshot(true, directory.resolve("catalog.snapshot"));
+        var books = List.of(
+                Book.builder().id(1L).isbn("9788533613379").isbnKey(9788533613379L)
+                        .title("Dom Casmurro").author("Machado de Assis").build(),
+                Book.builder().id(7L).title("Sem ISBN").build());
+
+        //execução
+        var written = snapshot.write(books.iterator());
+        var loaded = new ArrayList<Book>();
+        var count = snapshot.load(loaded::add);
+
+        //verificação
+        assertThat(written).isEqualTo(2);
+        assertThat(count).isEqualTo(2);
+        assertThat(loaded).containsExactlyElementsOf(books);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar um snapshot corrompido ou inexistente.")
+    public void corruptedSnapshotTest() throws IOException {
+        //cenário
+        var path = directory.resolve("catalog.snapshot");
+        var snapshot = new CatalogSnapshot(true, path);
+        var missing = snapshot.load(book -> { });
+        snapshot.write(List.of(Book.builder().id(1L).title("Dom Casmurro").build()).iterator());
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(12);
+            file.write(0x7F);
+        }
+
+        //execução
+        var loaded = new ArrayList<Book>();
+        var count = snapshot.load(loaded::add);
+
+        //verificação
+        assertThat(missing).isEqualTo(-1);
+        assertThat(count).isEqualTo(-1);
+        assertThat(loaded).isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.libraryapi.service.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnTest {
+
+    @Test
+    @DisplayName("Deve normalizar ISBN-10 e ISBN-13 para a mesma chave canônica.")
+    public void parseTest() {
+        assertThat(Isbn.parse("978-0-306-40615-7")).hasValue(9780306406157L);
+        assertThat(Isbn.parse("9780306406157")).hasValue(9780306406157L);
+        assertThat(Isbn.parse("0-306-40615-2")).hasValue(9780306406157L);
+        assertThat(Isbn.parse("080442957X")).hasValue(9780804429573L);
+        assertThat(Isbn.format(9780306406157L)).isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar ISBNs com dígito verificador, prefixo ou tamanho inválidos.")
+    public void rejectInvalidTest() {
+        assertThat(Isbn.parse(null)).isEmpty();
+        assertThat(Isbn.parse("123")).isEmpty();
+        assertThat(Isbn.parse("9780306406158")).isEmpty();
+        assertThat(Isbn.parse("0306406153")).isEmpty();
+        assertThat(Isbn.parse("9770306406157")).isEmpty();
+        assertThat(Isbn.parse("97803064061X7")).isEmpty();
+        assertThat(Isbn.canonical("abc")).isEqualTo("abc");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.libraryapi.service.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LongHashIndexTest {
+
+    @Test
+    @DisplayName("Deve manter o mapa de chaves primitivas consistente após inserções, remoções e redimensionamentos.")
+    public void longHashIndexTest() {
+        //cenário
+        var index = new LongHashIndex("test", 4);
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(7);
+
+        //execução
+        for (int i = 0; i < 20_000; i++) {
+            var key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                index.remove(key);
+                expected.remove((long) key);
+            } else {
+                index.put(key, i);
+                expected.put((long) key, (long) i);
+            }
+        }
+
+        //verificação
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertThat(index.get(key)).isEqualTo(expected.getOrDefault(key, LongHashIndex.MISSING));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a chave reservada 0.")
+    public void rejectReservedKeyTest() {
+        var index = new LongHashIndex("test", 4);
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> index.put(0, 1));
+
+        assertThat(exception).hasMessage("A chave 0 é reservada.");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.libraryapi.service.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixIndexTest {
+
+    @Test
+    @DisplayName("Deve indexar uma única vez o texto repetido em vários registros.")
+    public void repeatedTextTest() {
+        //cenário
+        var index = new PrefixIndex("test");
+
+        //execução
+        for (long id = 1; id <= 1_000; id++) {
+            index.put(id, Map.of("author", "Autor 1", "title", "Livro " + id));
+        }
+
+        //verificação
+        assertThat(index.suggest("autor", 5)).extracting(PrefixIndex.Suggestion::getText).containsExactly("Autor 1");
+        assertThat(index.suggest("livro 1", 3)).extracting(PrefixIndex.Suggestion::getText)
+                .containsExactly("Livro 1", "Livro 10", "Livro 100");
+        assertThat(index.size()).isEqualTo(2 + 2 * 1_000);
+    }
+
+    @Test
+    @DisplayName("Deve manter o texto repetido até que o último registro que o contém seja removido.")
+    public void removeRepeatedTextTest() {
+        //cenário
+        var index = new PrefixIndex("test");
+        index.put(1, Map.of("author", "Autor 1"));
+        index.put(2, Map.of("author", "Autor 1"));
+
+        //execução
+        index.remove(1);
+        var afterFirst = index.suggest("autor", 5);
+        index.remove(2);
+        var afterSecond = index.suggest("autor", 5);
+
+        //verificação
+        assertThat(afterFirst).extracting(PrefixIndex.Suggestion::getText).containsExactly("Autor 1");
+        assertThat(afterSecond).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
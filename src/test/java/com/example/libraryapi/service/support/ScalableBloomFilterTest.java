@@ -0,0 +1,48 @@
+package com.example.libraryapi.service.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Deve crescer além da capacidade inicial sem falsos negativos e dentro da taxa de falsos positivos.")
+    public void growWithoutFalseNegativesTest() {
+        //cenário
+        var filter = new ScalableBloomFilter("test", 1_000, 0.01);
+
+        //execução
+        for (long key = 1; key <= 50_000; key++) {
+            filter.put(key * 2);
+        }
+
+        var falsePositives = 0;
+        for (long key = 1; key <= 50_000; key++) {
+            assertThat(filter.mightContain(key * 2)).isTrue();
+            if (filter.mightContain(key * 2 + 1)) {
+                falsePositives++;
+            }
+        }
+
+        //verificação
+        assertThat(filter.getSliceCount()).isGreaterThan(1);
+        assertThat(falsePositives / 50_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("Deve calcular a taxa observada de falsos positivos a partir das confirmações.")
+    public void observedFalsePositiveRateTest() {
+        var filter = new ScalableBloomFilter("test", 100, 0.01);
+        filter.put(42);
+
+        filter.mightContain(7);
+        filter.mightContain(8);
+        filter.mightContain(9);
+        filter.recordFalsePositive();
+
+        assertThat(filter.getAbsentCount()).isEqualTo(3);
+        assertThat(filter.getObservedFalsePositiveRate()).isEqualTo(0.25);
+    }
+}